@@ -0,0 +1,297 @@
+package com.stemcell.common.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache de invocação de métodos por reflexão. O método é localizado uma única
+ * vez por classe, nome e número de argumentos (ou assinatura) e convertido em
+ * um MethodHandle adaptado para receber o alvo e um array de argumentos, de
+ * modo que as chamadas seguintes não percorrem os métodos da classe nem
+ * passam pelas verificações de <code>Method.invoke</code>.
+ * Exemplo:
+ * <pre>
+ *    Object result = InvocationCache.get(service.getClass(), "buscarCursos", filtro).invoke(service, filtro);
+ * </pre>
+ */
+public final class InvocationCache {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    /**
+     * Invokers resolvidos por classe, indexados pelo Method ou pela
+     * identificação textual nome/aridade ou nome(tipos)
+     */
+    private static final ClassValue<ConcurrentMap<Object, Invoker>> invokers = new ClassValue<ConcurrentMap<Object, Invoker>>() {
+        @Override
+        protected ConcurrentMap<Object, Invoker> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<Object, Invoker>();
+        }
+    };
+
+    /**
+     * Métodos públicos candidatos por classe, indexados por nome/aridade, para
+     * que as sobrecargas não percorram os métodos da classe a cada chamada
+     */
+    private static final ClassValue<ConcurrentMap<String, List<Method>>> candidates = new ClassValue<ConcurrentMap<String, List<Method>>>() {
+        @Override
+        protected ConcurrentMap<String, List<Method>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<String, List<Method>>();
+        }
+    };
+
+    /**
+     * Construtor privado
+     */
+    private InvocationCache() {
+    }
+
+    /**
+     * Obtém o invoker do método. Métodos não públicos são tornados acessíveis
+     * uma única vez
+     *
+     * @param method método
+     * @return invoker do método
+     */
+    public static Invoker get(Method method) {
+        ConcurrentMap<Object, Invoker> cache = invokers.get(method.getDeclaringClass());
+        Invoker invoker = cache.get(method);
+        if (invoker == null) {
+            invoker = new Invoker(method);
+            Invoker existing = cache.putIfAbsent(method, invoker);
+            if (existing != null) {
+                invoker = existing;
+            }
+        }
+        return invoker;
+    }
+
+    /**
+     * Obtém o invoker do método público de <b>type</b> com o nome informado e
+     * o mesmo número de argumentos de <b>args</b>. Se houver mais de um método
+     * com esse nome e número de argumentos, o método é escolhido pelos tipos de
+     * <b>args</b>
+     *
+     * @param type classe do objeto alvo
+     * @param methodName nome do método
+     * @param args argumentos da chamada
+     * @return invoker do método
+     * @throws IllegalArgumentException se nenhum método for encontrado ou se a
+     * escolha entre as sobrecargas for ambígua
+     */
+    public static Invoker get(Class<?> type, String methodName, Object... args) {
+        Object[] arguments = (args == null) ? NO_ARGS : args;
+        ConcurrentMap<Object, Invoker> cache = invokers.get(type);
+        String byArity = methodName + "/" + arguments.length;
+        Invoker invoker = cache.get(byArity);
+        if (invoker != null) {
+            return invoker;
+        }
+
+        // Sobrecargas já resolvidas para os mesmos tipos de argumentos
+        String bySignature = signature(methodName, arguments);
+        invoker = cache.get(bySignature);
+        if (invoker != null) {
+            return invoker;
+        }
+
+        List<Method> methods = getCandidates(type, methodName, arguments.length, byArity);
+        if (methods.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Método não encontrado: %s.%s com %d argumento(s)",
+                    type.getName(), methodName, arguments.length));
+        }
+        if (methods.size() == 1) {
+            invoker = get(methods.get(0));
+            cache.putIfAbsent(byArity, invoker);
+            return invoker;
+        }
+
+        // Sobrecargas com o mesmo número de argumentos: escolhe pelos tipos
+        invoker = get(selectOverload(type, methodName, methods, arguments));
+        cache.putIfAbsent(bySignature, invoker);
+        return invoker;
+    }
+
+    /**
+     * Obtém os métodos públicos com o nome e a aridade informados, buscados uma
+     * única vez por classe
+     */
+    private static List<Method> getCandidates(Class<?> type, String methodName, int arity, String byArity) {
+        ConcurrentMap<String, List<Method>> cache = candidates.get(type);
+        List<Method> methods = cache.get(byArity);
+        if (methods == null) {
+            methods = Collections.unmodifiableList(findCandidates(type, methodName, arity));
+            List<Method> existing = cache.putIfAbsent(byArity, methods);
+            if (existing != null) {
+                methods = existing;
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Busca os métodos públicos com o nome e a aridade informados, ignorando
+     * métodos ponte gerados pelo compilador
+     */
+    private static List<Method> findCandidates(Class<?> type, String methodName, int arity) {
+        List<Method> found = new ArrayList<Method>();
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterTypes().length == arity && !method.isBridge()) {
+                found.add(method);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Escolhe a sobrecarga compatível com os tipos dos argumentos. Havendo mais
+     * de uma, escolhe a mais específica, como o compilador faria
+     */
+    private static Method selectOverload(Class<?> type, String methodName, List<Method> candidates, Object[] args) {
+        List<Method> applicable = new ArrayList<Method>();
+        for (Method method : candidates) {
+            if (accepts(method.getParameterTypes(), args)) {
+                applicable.add(method);
+            }
+        }
+        if (applicable.size() == 1) {
+            return applicable.get(0);
+        }
+        Method mostSpecific = mostSpecific(applicable);
+        if (mostSpecific != null) {
+            return mostSpecific;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Method method : applicable.isEmpty() ? candidates : applicable) {
+            sb.append("\n    ").append(method.toGenericString());
+        }
+        throw new IllegalArgumentException(String.format("%s %s.%s para os argumentos %s. Candidatos:%s",
+                applicable.isEmpty() ? "Nenhuma sobrecarga compatível de" : "Chamada ambígua de",
+                type.getName(), methodName, signature("", args), sb));
+    }
+
+    /**
+     * @return o método cujos parâmetros são atribuíveis aos de todos os
+     * demais, ou null se não houver um único
+     */
+    private static Method mostSpecific(List<Method> methods) {
+        Method found = null;
+        for (Method candidate : methods) {
+            boolean specific = true;
+            for (Method other : methods) {
+                if (other != candidate && !isAssignable(candidate.getParameterTypes(), other.getParameterTypes())) {
+                    specific = false;
+                    break;
+                }
+            }
+            if (specific) {
+                if (found != null) {
+                    return null;
+                }
+                found = candidate;
+            }
+        }
+        return found;
+    }
+
+    private static boolean isAssignable(Class<?>[] from, Class<?>[] to) {
+        for (int i = 0; i < from.length; i++) {
+            if (!wrap(to[i]).isAssignableFrom(wrap(from[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean accepts(Class<?>[] parameterTypes, Object[] args) {
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            if (args[i] == null) {
+                if (parameterType.isPrimitive()) {
+                    return false;
+                }
+            } else if (!wrap(parameterType).isInstance(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private static String signature(String methodName, Object[] args) {
+        StringBuilder sb = new StringBuilder(methodName).append('(');
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(args[i] == null ? "null" : args[i].getClass().getName());
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Método resolvido e adaptado para invocação
+     */
+    public static final class Invoker {
+        private final Method method;
+        /**
+         * Handle com tipo (Object alvo, Object[] argumentos)Object
+         */
+        private final MethodHandle handle;
+
+        Invoker(Method method) {
+            int arity = method.getParameterTypes().length;
+            if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            try {
+                MethodHandle mh = MethodHandles.lookup().unreflect(method);
+                if (Modifier.isStatic(method.getModifiers())) {
+                    mh = MethodHandles.dropArguments(mh.asType(MethodType.genericMethodType(arity)), 0, Object.class);
+                } else {
+                    mh = mh.asType(MethodType.genericMethodType(arity + 1));
+                }
+                this.handle = mh.asSpreader(Object[].class, arity);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Método inacessível: " + method.toGenericString(), e);
+            }
+            this.method = method;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        /**
+         * Invoca o método. Ao contrário de <code>Method.invoke</code>, a exceção
+         * lançada pelo método não é encapsulada em InvocationTargetException
+         *
+         * @param target objeto alvo (ignorado em métodos estáticos)
+         * @param args argumentos, com o tamanho exato da assinatura
+         * @return retorno do método, ou null se ele for void
+         * @throws Throwable exceção lançada pelo método
+         */
+        public Object invoke(Object target, Object... args) throws Throwable {
+            Object[] arguments = (args == null) ? NO_ARGS : args;
+            return (Object) handle.invokeExact(target, arguments);
+        }
+
+        @Override
+        public String toString() {
+            return "Invoker[" + method.toGenericString() + "]";
+        }
+    }
+}
@@ -1,12 +1,7 @@
 package com.stemcell.swing.assync;
 
-import com.stemcell.swing.assync.processor.ExceptionExtendedProcessor;
-import com.stemcell.swing.assync.processor.ExceptionProcessor;
-import com.stemcell.swing.assync.processor.PostProcessor;
-import com.stemcell.swing.assync.processor.PreProcessor;
-import com.stemcell.swing.assync.processor.PreScheduleProcessor;
+import com.stemcell.common.util.SerializableObservableList;
 import com.stemcell.swing.assync.processor.Processor;
-import com.stemcell.swing.assync.processor.SuccessProcessor;
 import com.stemcell.swing.assync.processor.impl.AddValueToListPostProcessor;
 import com.stemcell.swing.assync.processor.impl.AssignResultPostProcessor;
 import com.stemcell.swing.assync.processor.impl.IgnoreTimeoutExceptionProcessor;
@@ -15,15 +10,24 @@ import com.stemcell.swing.assync.processor.impl.SwapPropertyProcessor;
 import java.awt.Component;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
 
@@ -40,43 +44,155 @@ import javax.swing.ImageIcon;
  *          .disabling(actionBuscar, sTable1)               // Desabilita componentes enquanto aguarda execução
  *          .invoke().buscarCursos(model.getCursoFiltro())  // Finaliza o agendamento da chamada
  * </pre>
+ * O agendamento e a execução das chamadas não dependem do AWT: com um
+ * ProcessorExecutor sem interface (DirectProcessorExecutor ou
+ * EventLoopProcessorExecutor) o AWT só é carregado se algum processor alterar
+ * componentes Swing.
  *
  */
 public final class AssyncInvoker<R, T> implements Runnable {
+    /**
+     * Propriedade de sistema que define o ProcessorExecutor padrão: swing
+     * (padrão), direct ou eventloop
+     */
+    public static final String PROCESSOR_EXECUTOR_PROPERTY = "stemcell.assync.processorExecutor";
     /*
      * Thread Model default para manter retrocompatibilidade.
      */
-    public static ProcessorExecutor defaultProcessorExecutor = new SwingProcessorExecutor();
+    public static ProcessorExecutor defaultProcessorExecutor = createDefaultProcessorExecutor();
     /**
      * Chave do executor padrão
      */
     public static final String DEFAULT_EXECUTOR_KEY = "__DEFAULT_EXECUTOR__";
     /**
-     * Icone default usado para demonstrar espera de chamada assíncrona
+     * Executor compartilhado que atende as chaves sem executor customizado
+     */
+    private static KeyedSerialExecutor keyedExecutor = new KeyedSerialExecutor();
+    /**
+     * Registro dos executores e das futures agendadas para execução
+     */
+    private static final TaskRegistry registry = new TaskRegistry();
+    /**
+     * Agrupador das chamadas idênticas em curso
+     */
+    private static final CallCoalescer coalescer = new CallCoalescer();
+    /**
+     * Cache de resultados padrão usado por cachingFor
      */
-    public static final Icon DEFAULT_LOADING_ICON = new ImageIcon(AssyncInvoker.class.getResource("/icons/loading.gif"));
+    private static ResultCache defaultResultCache = new ResultCache();
     /**
-     * Mapa de executores das chamdas
+     * Políticas de agendamento das chaves que não usam a ordem FIFO
      */
-    private static Map<Object, ExecutorService> executors = Collections.synchronizedMap(new HashMap<Object, ExecutorService>());
+    private static final ConcurrentMap<Object, PolicyDispatcher> dispatchers = new ConcurrentHashMap<Object, PolicyDispatcher>();
     /**
-     * Mapa de lista de futures agendadas para execuçao
+     * Número de chamadas INTERACTIVE pendentes ou em execução em todas as chaves
      */
-    private static Map<Object, List<Future>> tasks = Collections.synchronizedMap(new HashMap<Object, List<Future>>());
+    private static final AtomicInteger interactiveTasks = new AtomicInteger();
+    /**
+     * Prazos padrão das chamadas por chave de executor, em nanossegundos
+     */
+    private static final ConcurrentMap<Object, Long> defaultTimeouts = new ConcurrentHashMap<Object, Long>();
+    /**
+     * Limites das filas por chave de executor
+     */
+    private static final ConcurrentMap<Object, QueueBound> queueBounds = new ConcurrentHashMap<Object, QueueBound>();
+    /**
+     * Indica que os executores estão sendo finalizados e novas chamadas são recusadas
+     */
+    private static volatile boolean shuttingDown;
     /**
      * Identificador do executor usado nesta instância
      */
     private Object executorKey = DEFAULT_EXECUTOR_KEY;
+    /**
+     * Entrada do registro na qual a chamada foi agendada
+     */
+    private TaskRegistry.Entry registryEntry;
     /**
      * Lista de processadores de chamdas reigstrados na chamada atual
      */
     private List<Processor> processors = new ArrayList();
+    /**
+     * Processors separados por fase, montados no agendamento
+     */
+    private volatile ProcessorPipeline pipeline = ProcessorPipeline.EMPTY;
     /**
      * Referência para chamada a ser executada assincronamente
      */
     private Callable<R> call;
     
     private ProcessorExecutor processorExecutor;
+    /**
+     * Indica se chamadas idênticas em curso devem ser agrupadas
+     */
+    private boolean coalescing;
+    /**
+     * Chamada compartilhada da qual esta instância é líder
+     */
+    private CallCoalescer.SharedCall sharedCall;
+    /**
+     * Cache no qual o resultado da chamada é buscado e armazenado
+     */
+    private ResultCache resultCache;
+    /**
+     * Tempo de vida do resultado no cache, em nanossegundos
+     */
+    private long cacheTtlNanos;
+    /**
+     * Agrupador em lote ao qual a chamada é entregue
+     */
+    private CallBatcher<?, ?> batcher;
+    /**
+     * Prioridade solicitada para a chamada
+     */
+    private TaskPriority priority = TaskPriority.NORMAL;
+    /**
+     * Prazo da chamada em nanossegundos, ou -1 para usar o prazo padrão da chave
+     */
+    private long timeoutNanos = -1;
+    /**
+     * Política de novas tentativas da chamada
+     */
+    private RetryPolicy retryPolicy;
+    /**
+     * Circuito do serviço chamado
+     */
+    private CircuitBreaker circuitBreaker;
+    /**
+     * Indica que o circuito deve ser obtido do objeto alvo no agendamento
+     */
+    private boolean circuitFromTarget;
+    /**
+     * Número de tentativas já iniciadas. Alterado apenas pela thread que
+     * executa a chamada
+     */
+    private int attempts;
+    /**
+     * Escopo definido com inScope ou inScopeOf
+     */
+    private TaskScope explicitScope;
+    /**
+     * Escopo da janela à qual a chamada pertence: o explícito ou o obtido dos
+     * componentes alterados pelos processors
+     */
+    private TaskScope scope;
+    /**
+     * Etapa concluída com o resultado da chamada, criada sob demanda
+     */
+    private volatile CompletableFuture<R> completion;
+    /**
+     * Etapa cujo resultado é entregue aos processors, quando criado com from
+     */
+    private CompletionStage<R> sourceStage;
+    /**
+     * Indica que a task da chamada foi cancelada e seus processors não devem
+     * mais ser executados
+     */
+    private volatile boolean cancelled;
+    /**
+     * Task submetida ao executor para esta chamada
+     */
+    private volatile ManagedFutureTask<?> task;
 
     /**
      * Permite customizar o executor de chamadas assíncronas
@@ -84,19 +200,289 @@ public final class AssyncInvoker<R, T> implements Runnable {
      * @param executor executor
      * @param executorKey chaveDoExecutor
      */
-    public static synchronized void setExecutor(ExecutorService executor, Object executorKey) {
-        executors.put(executorKey, executor);
-        tasks.put(executorKey, new ArrayList<Future>());
+    public static void setExecutor(ExecutorService executor, Object executorKey) {
+        registry.register(executorKey, executor);
     }
 
     /**
-     * Obtém o executor de chamadas assíncronas Instanciado sob demanda com pool
-     * de tamanho 2 se não definido
+     * Obtém o executor de chamadas assíncronas. Instanciado sob demanda pelo
+     * KeyedSerialExecutor no primeiro schedule da chave se não definido
      *
      * @return executor
      */
-    public static synchronized ExecutorService getExecutor(Object executorKey) {
-        return executors.get(executorKey);
+    public static ExecutorService getExecutor(Object executorKey) {
+        TaskRegistry.Entry entry = registry.get(executorKey);
+        return (entry == null) ? null : entry.getExecutor();
+    }
+
+    /**
+     * Obtém o número de chamadas agendadas no executor que ainda aguardam
+     * execução
+     *
+     * @param executorKey chave do executor
+     * @return número de chamadas pendentes
+     */
+    public static int getPendingTaskCount(Object executorKey) {
+        TaskRegistry.Entry entry = registry.get(executorKey);
+        return (entry == null) ? 0 : entry.getPendingCount();
+    }
+
+    /**
+     * Obtém o número de chamadas do executor em execução no momento
+     *
+     * @param executorKey chave do executor
+     * @return número de chamadas em execução
+     */
+    public static int getRunningTaskCount(Object executorKey) {
+        TaskRegistry.Entry entry = registry.get(executorKey);
+        return (entry == null) ? 0 : entry.getRunningCount();
+    }
+
+    /**
+     * Obtém o número de chamadas do executor que excederam o prazo, aguardando
+     * na fila ou em execução, desde a criação do executor
+     *
+     * @param executorKey chave do executor
+     * @return número de chamadas com prazo excedido
+     */
+    public static long getTimeoutCount(Object executorKey) {
+        TaskRegistry.Entry entry = registry.get(executorKey);
+        return (entry == null) ? 0 : entry.getTimeoutCount();
+    }
+
+    /**
+     * Obtém o número de novas tentativas feitas por chamadas do executor com
+     * RetryPolicy, desde a criação do executor
+     *
+     * @param executorKey chave do executor
+     * @return número de novas tentativas
+     */
+    public static long getRetryCount(Object executorKey) {
+        TaskRegistry.Entry entry = registry.get(executorKey);
+        return (entry == null) ? 0 : entry.getRetryCount();
+    }
+
+    /**
+     * Define o prazo padrão das chamadas agendadas na chave. Chamadas que
+     * definem o prazo com withTimeout não são afetadas
+     *
+     * @param executorKey chave do executor
+     * @param timeout prazo, contado a partir do agendamento. Zero remove o prazo padrão
+     * @param unit unidade de timeout
+     */
+    public static void setDefaultTimeout(Object executorKey, long timeout, TimeUnit unit) {
+        if (timeout <= 0) {
+            defaultTimeouts.remove(executorKey);
+        } else {
+            defaultTimeouts.put(executorKey, unit.toNanos(timeout));
+        }
+    }
+
+    /**
+     * Obtém o prazo padrão das chamadas agendadas na chave
+     *
+     * @param executorKey chave do executor
+     * @param unit unidade do retorno
+     * @return prazo padrão ou zero se a chave não possui prazo
+     */
+    public static long getDefaultTimeout(Object executorKey, TimeUnit unit) {
+        Long nanos = defaultTimeouts.get(executorKey);
+        return (nanos == null) ? 0 : unit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Obtém as métricas da chave: profundidade da fila, contadores e latências
+     * de espera, execução e pós-processamento. As métricas também são
+     * publicadas via JMX enquanto a chave possui executor
+     *
+     * @param executorKey chave do executor
+     * @return métricas ou null se a chave não possui executor
+     */
+    public static ExecutorMetrics getMetrics(Object executorKey) {
+        TaskRegistry.Entry entry = registry.get(executorKey);
+        return (entry == null) ? null : entry.getMetrics();
+    }
+
+    /**
+     * Obtém as métricas de todas as chaves que possuem executor
+     *
+     * @return métricas por chave de executor
+     */
+    public static Map<Object, ExecutorMetrics> getAllMetrics() {
+        Map<Object, ExecutorMetrics> metrics = new LinkedHashMap<Object, ExecutorMetrics>();
+        for (TaskRegistry.Entry entry : registry.entries()) {
+            metrics.put(entry.getExecutorKey(), entry.getMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Limita o número de chamadas aguardando execução na chave. Ao agendar uma
+     * chamada com a fila cheia, a política define a chamada descartada, que
+     * recebe uma QueueOverflowException nos seus tratadores de exceção
+     *
+     * @param executorKey chave do executor
+     * @param capacity número máximo de chamadas na fila. Zero remove o limite
+     * @param policy política aplicada com a fila cheia
+     */
+    public static void setQueueBound(Object executorKey, int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) {
+            queueBounds.remove(executorKey);
+        } else {
+            queueBounds.put(executorKey, new QueueBound(capacity, policy));
+        }
+    }
+
+    /**
+     * Obtém o limite da fila da chave
+     *
+     * @param executorKey chave do executor
+     * @return número máximo de chamadas na fila ou zero se a fila não é limitada
+     */
+    public static int getQueueCapacity(Object executorKey) {
+        QueueBound bound = queueBounds.get(executorKey);
+        return (bound == null) ? 0 : bound.getCapacity();
+    }
+
+    /**
+     * Obtém a política aplicada quando a fila da chave está cheia
+     *
+     * @param executorKey chave do executor
+     * @return política ou null se a fila não é limitada
+     */
+    public static OverflowPolicy getOverflowPolicy(Object executorKey) {
+        QueueBound bound = queueBounds.get(executorKey);
+        return (bound == null) ? null : bound.getPolicy();
+    }
+
+    /**
+     * Obtém o número de chamadas do executor recusadas, descartadas ou
+     * executadas pelo chamador porque a fila atingiu o limite, desde a criação
+     * do executor
+     *
+     * @param executorKey chave do executor
+     * @return número de chamadas afetadas pelo limite da fila
+     */
+    public static long getOverflowCount(Object executorKey) {
+        TaskRegistry.Entry entry = registry.get(executorKey);
+        return (entry == null) ? 0 : entry.getOverflowCount();
+    }
+
+    /**
+     * Obtém o executor serial compartilhado usado para criar os executores das
+     * chaves sem executor customizado
+     *
+     * @return executor compartilhado
+     */
+    public static synchronized KeyedSerialExecutor getKeyedExecutor() {
+        return keyedExecutor;
+    }
+
+    /**
+     * Substitui o executor serial compartilhado. Os executores já criados para
+     * as chaves continuam usando o executor anterior até serem finalizados
+     *
+     * @param executor executor compartilhado
+     */
+    public static synchronized void setKeyedExecutor(KeyedSerialExecutor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor não pode ser nulo");
+        }
+        keyedExecutor = executor;
+    }
+
+    /**
+     * Obtém o cache de resultados padrão usado por cachingFor
+     *
+     * @return cache de resultados
+     */
+    public static synchronized ResultCache getResultCache() {
+        return defaultResultCache;
+    }
+
+    /**
+     * Substitui o cache de resultados padrão usado por cachingFor
+     *
+     * @param resultCache cache de resultados
+     */
+    public static synchronized void setResultCache(ResultCache resultCache) {
+        if (resultCache == null) {
+            throw new IllegalArgumentException("resultCache não pode ser nulo");
+        }
+        defaultResultCache = resultCache;
+    }
+
+    /**
+     * Obtém o número de chamadas com prioridade INTERACTIVE pendentes ou em
+     * execução, somando todas as chaves
+     *
+     * @return número de chamadas interativas em curso
+     */
+    public static int getInteractiveTaskCount() {
+        return interactiveTasks.get();
+    }
+
+    /**
+     * Define a política de agendamento das chamadas da chave. As chamadas
+     * canceladas pela política não executam seus processors
+     *
+     * @param executorKey chave do executor
+     * @param policy política de agendamento
+     * @see SchedulingPolicy
+     */
+    public static void setSchedulingPolicy(Object executorKey, SchedulingPolicy policy) {
+        if (policy == null || policy.getType() == SchedulingPolicy.Type.FIFO) {
+            dispatchers.remove(executorKey);
+        } else {
+            dispatchers.put(executorKey, new PolicyDispatcher(policy));
+        }
+    }
+
+    /**
+     * Obtém a política de agendamento das chamadas da chave
+     *
+     * @param executorKey chave do executor
+     * @return política de agendamento
+     */
+    public static SchedulingPolicy getSchedulingPolicy(Object executorKey) {
+        PolicyDispatcher dispatcher = dispatchers.get(executorKey);
+        return (dispatcher == null) ? SchedulingPolicy.FIFO : dispatcher.getPolicy();
+    }
+
+    /**
+     * Cria o ProcessorExecutor padrão conforme a propriedade de sistema
+     * {@link #PROCESSOR_EXECUTOR_PROPERTY}
+     *
+     * @return executor dos processors
+     */
+    private static ProcessorExecutor createDefaultProcessorExecutor() {
+        String type = System.getProperty(PROCESSOR_EXECUTOR_PROPERTY, "swing");
+        if ("direct".equals(type)) {
+            return new DirectProcessorExecutor();
+        } else if ("eventloop".equals(type)) {
+            return new EventLoopProcessorExecutor("assync-processors");
+        } else if ("swing".equals(type)) {
+            return new SwingProcessorExecutor();
+        }
+        throw new IllegalArgumentException("Valor inválido para " + PROCESSOR_EXECUTOR_PROPERTY + ": " + type);
+    }
+
+    /**
+     * Busca ou inicializa a entrada do registro da chave
+     *
+     * @param executorKey chave do executor
+     * @return entrada do registro da chave
+     */
+    private static TaskRegistry.Entry obtainEntry(Object executorKey) {
+        if (shuttingDown) {
+            throw new RejectedExecutionException("AssyncInvoker em finalização: chamada recusada");
+        }
+        TaskRegistry.Entry entry = registry.get(executorKey);
+        if (entry == null) {
+            // O executor serial não cria threads, portanto pode ser descartado se outra thread registrar antes
+            entry = registry.registerIfAbsent(executorKey, getKeyedExecutor().forKey(executorKey));
+        }
+        return entry;
     }
 
     /**
@@ -147,6 +533,114 @@ public final class AssyncInvoker<R, T> implements Runnable {
         return new AssyncInvoker(new ReflectionCallable(target, methodName, args));
     }
 
+    /**
+     * Cria um AssyncInvoker para uma chamada que produz o resultado em blocos.
+     * Cada bloco publicado é acrescentado a <b>target</b> na thread de eventos
+     * assim que disponível, agrupando os blocos publicados no mesmo quadro em
+     * um único addAll, de modo que os primeiros registros aparecem antes do fim
+     * da chamada. O resultado entregue aos processors é o número de elementos
+     * publicados. O cancelamento da chamada é repassado ao produtor pelo
+     * ResultSink e pela interrupção da thread.
+     *
+     * @param producer chamada que publica os blocos de resultado
+     * @param target lista na qual os blocos são acrescentados
+     * @return instância para uso no formato fluent interface
+     * @see StreamingCallable
+     */
+    public static <E> AssyncInvoker<Integer, Object> createStreaming(StreamingCallable<E> producer, SerializableObservableList<E> target) {
+        if (producer == null || target == null) {
+            throw new IllegalArgumentException("producer e target não podem ser nulos");
+        }
+        StreamingCall<E> streamingCall = new StreamingCall<E>(producer, target);
+        AssyncInvoker<Integer, Object> ai = new AssyncInvoker<Integer, Object>(streamingCall);
+        streamingCall.setInvoker(ai);
+        return ai;
+    }
+
+    /**
+     * Cria um AssyncInvoker que entrega aos processors o resultado de uma
+     * etapa já em curso, tipicamente composta a partir de scheduleAsync. Nenhuma
+     * chamada é executada em um executor: os processors são executados uma única
+     * vez no ProcessorExecutor quando a etapa termina.
+     * Exemplo:
+     * <pre>
+     *    CompletionStage&lt;Cliente&gt; cliente = AssyncInvoker.create(buscaCliente).scheduleAsync("clientes");
+     *    CompletionStage&lt;List&gt; pedidos = AssyncInvoker.create(buscaPedidos).scheduleAsync("pedidos");
+     *
+     *    AssyncInvoker.from(AssyncInvoker.all(cliente, pedidos))
+     *          .assigningResultTo(model, "dadosCliente")
+     *          .schedule();
+     * </pre>
+     *
+     * @param stage etapa cujo resultado será processado
+     * @return instância para uso no formato fluent interface
+     */
+    public static <R> AssyncInvoker<R, Object> from(CompletionStage<R> stage) {
+        if (stage == null) {
+            throw new IllegalArgumentException("stage não pode ser nulo");
+        }
+        AssyncInvoker<R, Object> ai = new AssyncInvoker<R, Object>(new Callable<R>() {
+            @Override
+            public R call() throws Exception {
+                throw new IllegalStateException("Chamada criada com from(stage) não é executada em um executor");
+            }
+        });
+        ai.sourceStage = stage;
+        return ai;
+    }
+
+    /**
+     * Combina as etapas em uma etapa concluída com a lista dos seus resultados,
+     * na mesma ordem, quando todas terminarem. Falha se qualquer uma falhar
+     *
+     * @param stages etapas executadas em paralelo
+     * @return etapa combinada
+     */
+    public static CompletionStage<List<Object>> all(final CompletionStage<?>... stages) {
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            futures[i] = stages[i].toCompletableFuture();
+        }
+        return CompletableFuture.allOf(futures).thenApply(new Function<Void, List<Object>>() {
+            @Override
+            public List<Object> apply(Void ignored) {
+                List<Object> results = new ArrayList<Object>(futures.length);
+                for (CompletableFuture<?> future : futures) {
+                    results.add(future.join());
+                }
+                return results;
+            }
+        });
+    }
+
+    /**
+     * Combina as etapas em uma etapa concluída com o resultado da primeira que
+     * terminar
+     *
+     * @param stages etapas executadas em paralelo
+     * @return etapa combinada
+     */
+    public static CompletionStage<Object> any(CompletionStage<?>... stages) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            futures[i] = stages[i].toCompletableFuture();
+        }
+        return CompletableFuture.anyOf(futures);
+    }
+
+    /**
+     * Encadeia uma chamada dependente do resultado de <b>stage</b>. A função é
+     * executada na thread que concluiu a etapa (o worker), sem passar pela
+     * thread de eventos
+     *
+     * @param stage etapa anterior
+     * @param next função que agenda a chamada dependente, tipicamente com scheduleAsync
+     * @return etapa concluída com o resultado da chamada dependente
+     */
+    public static <A, B> CompletionStage<B> thenCompose(CompletionStage<A> stage, Function<? super A, ? extends CompletionStage<B>> next) {
+        return stage.thenCompose(next);
+    }
+
     /**
      * Força o cancelamento de todas as chamadas pendentes para um determinado
      * executor
@@ -155,16 +649,27 @@ public final class AssyncInvoker<R, T> implements Runnable {
      * @return
      */
     public static boolean cancelAllPendingTasks(Object executorKey) {
-        ExecutorService executor = executors.get(executorKey);
-        if (executor != null) {
-            List<Future> futureTasks = new ArrayList(tasks.get(executorKey));
-            for (Future future : futureTasks) {
-                if (future != null) {
-                    future.cancel(false);
-                }
+        return cancelAllPendingTasks(executorKey, false);
+    }
+
+    /**
+     * Força o cancelamento de todas as chamadas pendentes para um determinado
+     * executor, interrompendo também a chamada em execução se
+     * <b>mayInterruptIfRunning</b>. A interrupção libera a thread de uma
+     * chamada travada para as demais chamadas da chave
+     *
+     * @param executorKey chave do executor
+     * @param mayInterruptIfRunning interrompe a chamada em execução
+     * @return false se a chave não possui executor
+     */
+    public static boolean cancelAllPendingTasks(Object executorKey, boolean mayInterruptIfRunning) {
+        TaskRegistry.Entry entry = registry.get(executorKey);
+        if (entry != null) {
+            for (Future future : entry.getTasks()) {
+                future.cancel(mayInterruptIfRunning);
             }
         }
-        return executor != null;
+        return entry != null;
     }
 
     /**
@@ -173,11 +678,9 @@ public final class AssyncInvoker<R, T> implements Runnable {
      * @param executorKey
      */
     public static void terminate(Object executorKey) {
-        ExecutorService executor = executors.get(executorKey);
-        if (executor != null) {
-            executor.shutdownNow();
-            executors.remove(executorKey);
-            tasks.remove(executorKey);
+        TaskRegistry.Entry entry = registry.remove(executorKey);
+        if (entry != null) {
+            cancelLeftover(entry.getExecutor().shutdownNow());
         }
     }
 
@@ -188,13 +691,89 @@ public final class AssyncInvoker<R, T> implements Runnable {
      * @param executorKey
      */
     public static void terminate() {
-        for (ExecutorService executor : executors.values()) {
-            executor.shutdownNow();
+        for (TaskRegistry.Entry entry : registry.removeAll()) {
+            cancelLeftover(entry.getExecutor().shutdownNow());
+        }
+    }
+
+    /**
+     * Cancela as tasks retiradas da fila por shutdownNow(), que não chegarão a
+     * executar, para que as suas etapas e seguidores sejam concluídos
+     *
+     * @param leftover tasks não executadas
+     */
+    private static void cancelLeftover(List<Runnable> leftover) {
+        for (Runnable runnable : leftover) {
+            if (runnable instanceof Future) {
+                ((Future) runnable).cancel(false);
+            }
         }
-        executors.clear();
-        tasks.clear();
     }
     
+    /**
+     * Finaliza todos os executores de forma ordenada: novas chamadas são
+     * recusadas, as chamadas da fila são executadas ou canceladas conforme a
+     * política e as chamadas em execução são aguardadas até o prazo, entregando
+     * normalmente seus resultados aos processors. As chamadas que não terminarem
+     * no prazo são interrompidas ou canceladas, seus processors descartados, e
+     * informadas no relatório. Ao contrário de terminate(), uma gravação em
+     * curso não é interrompida enquanto houver prazo.
+     * <p>
+     * Os processors das chamadas aguardadas só executam se o ProcessorExecutor
+     * estiver livre. Com o SwingProcessorExecutor, a finalização não deve
+     * bloquear a thread de eventos: num shutdown hook disparado por
+     * System.exit chamado na thread de eventos (como no EXIT_ON_CLOSE), as
+     * chamadas terminam mas os seus processors não executam. O BaseApp por isso
+     * finaliza as chamadas numa thread própria antes de encerrar a JVM
+     *
+     * @param policy política de finalização
+     * @return relatório das chamadas canceladas e abandonadas
+     */
+    public static ShutdownReport shutdown(ShutdownPolicy policy) {
+        long start = System.nanoTime();
+        long deadline = start + policy.getDeadline(TimeUnit.NANOSECONDS);
+        shuttingDown = true;
+        try {
+            List<TaskRegistry.Entry> entries = new ArrayList<TaskRegistry.Entry>(registry.entries());
+            int cancelledQueued = 0;
+            for (TaskRegistry.Entry entry : entries) {
+                entry.setDraining(true);
+                entry.getExecutor().shutdown();
+                if (!policy.isDrainQueued()) {
+                    for (Future future : entry.getTasks()) {
+                        if (future instanceof AssyncInvoker.ManagedFutureTask && ((AssyncInvoker.ManagedFutureTask) future).cancelPending()) {
+                            cancelledQueued++;
+                        }
+                    }
+                }
+            }
+
+            Map<Object, Integer> abandoned = new LinkedHashMap<Object, Integer>();
+            for (TaskRegistry.Entry entry : entries) {
+                ExecutorService executor = entry.getExecutor();
+                boolean terminated;
+                try {
+                    terminated = executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    terminated = executor.isTerminated();
+                }
+                if (!terminated) {
+                    // Prazo esgotado: os resultados que ainda chegarem são descartados
+                    entry.setDraining(false);
+                    int running = entry.getRunningCount();
+                    List<Runnable> leftover = executor.shutdownNow();
+                    cancelLeftover(leftover);
+                    abandoned.put(entry.getExecutorKey(), running + leftover.size());
+                }
+                registry.remove(entry.getExecutorKey());
+            }
+            return new ShutdownReport(cancelledQueued, abandoned, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            shuttingDown = false;
+        }
+    }
+
     /**
      * Construtor privado. Esta classe deve ser usada sob o formato de fluent
      * interface
@@ -221,6 +800,10 @@ public final class AssyncInvoker<R, T> implements Runnable {
         return this;
     }
 
+    ProcessorExecutor getProcessorExecutor() {
+        return processorExecutor;
+    }
+
     /**
      * Solicita que o retorno da chamada seja setado na propriedade
      * <b>property</b>
@@ -266,6 +849,18 @@ public final class AssyncInvoker<R, T> implements Runnable {
         return this;
     }
 
+    /**
+     * Icone default usado para demonstrar espera de chamada assíncrona. A
+     * imagem só é carregada no primeiro acesso, de modo que o AssyncInvoker
+     * pode ser usado sem carregar o AWT. Sem a imagem no classpath, é um ícone
+     * vazio
+     *
+     * @return ícone animado de carga
+     */
+    public static ImageIcon getDefaultLoadingIcon() {
+        return LoadingIconHolder.ICON;
+    }
+
     /**
      * Solicita que um ícone sinalizador de carga seja definido como valor da
      * propriedade "icon" dos objetos <b>components</b>. O ícone original é
@@ -277,7 +872,7 @@ public final class AssyncInvoker<R, T> implements Runnable {
      */
     public AssyncInvoker<R, T> settingLoadingIconOn(Object... components) {
         for (Object component : components) {
-            settingIconOn(component, DEFAULT_LOADING_ICON);
+            settingIconOn(component, getDefaultLoadingIcon());
         }
         return this;
     }
@@ -356,24 +951,200 @@ public final class AssyncInvoker<R, T> implements Runnable {
     }
 
     /**
-     * Solicita o processamento de um <b>processor</b> customizado
+     * Solicita que esta chamada seja agrupada com chamadas idênticas (mesmo
+     * objeto alvo, método e argumentos) já em curso. A chamada é executada uma
+     * única vez e o resultado é entregue à cadeia de processors de cada
+     * invoker. Observe que todos os invokers agrupados recebem a mesma
+     * instância de resultado. Disponível apenas para chamadas criadas com
+     * <code>create(target)</code> ou <code>create(target, methodName, args)</code>
      *
-     * @param processor processor
      * @return instância para uso no formato fluent interface
      */
-    public AssyncInvoker<R, T> processing(Processor processor) {
-        processors.add(processor);
+    public AssyncInvoker<R, T> coalescingCalls() {
+        this.coalescing = true;
         return this;
     }
 
     /**
-     * Retorna um proxy para execução assíncrona
+     * Solicita que o resultado da chamada seja armazenado no cache de
+     * resultados padrão pelo tempo informado. Enquanto válido, um resultado
+     * armazenado para o mesmo objeto alvo, método e argumentos é entregue
+     * diretamente aos PostProcessor e SuccessProcessor, sem execução da
+     * chamada. Cada entrega recebe uma cópia própria do resultado, de modo que
+     * alterações feitas pelos processors não chegam ao cache. Disponível apenas
+     * para chamadas criadas com
+     * <code>create(target)</code> ou <code>create(target, methodName, args)</code>
      *
-     * @param executorKey executor
-     * @return proxy para execução assíncrona
+     * @param ttl tempo de vida do resultado
+     * @param unit unidade de ttl
+     * @return instância para uso no formato fluent interface
+     * @see ResultCache
      */
-    public T invoke(Object executorKey) {
-        this.executorKey = executorKey;
+    public AssyncInvoker<R, T> cachingFor(long ttl, TimeUnit unit) {
+        return cachingFor(ttl, unit, getResultCache());
+    }
+
+    /**
+     * Solicita que o resultado da chamada seja armazenado no cache
+     * <b>resultCache</b> pelo tempo informado
+     *
+     * @param ttl tempo de vida do resultado
+     * @param unit unidade de ttl
+     * @param resultCache cache de resultados
+     * @return instância para uso no formato fluent interface
+     * @see #cachingFor(long, TimeUnit)
+     */
+    public AssyncInvoker<R, T> cachingFor(long ttl, TimeUnit unit, ResultCache resultCache) {
+        this.resultCache = resultCache;
+        this.cacheTtlNanos = unit.toNanos(ttl);
+        return this;
+    }
+
+    /**
+     * Solicita que a chamada seja agrupada em lote pelo <b>batcher</b>. A
+     * chamada deve ter exatamente um argumento, que é repassado à chamada em
+     * lote; o elemento correspondente do resultado do lote é entregue à cadeia
+     * de processors desta chamada. Disponível apenas para chamadas criadas com
+     * <code>create(target)</code> ou <code>create(target, methodName, args)</code>
+     *
+     * @param batcher agrupador em lote
+     * @return instância para uso no formato fluent interface
+     * @see CallBatcher
+     */
+    public AssyncInvoker<R, T> batchingWith(CallBatcher<?, ?> batcher) {
+        this.batcher = batcher;
+        return this;
+    }
+
+    /**
+     * Define a prioridade da chamada. Uma chamada {@link TaskPriority#INTERACTIVE}
+     * passa à frente também das chamadas da mesma chave que ainda não
+     * envelheceram, de modo que uma consulta pequena não espera uma exportação
+     * grande agendada antes dela na mesma chave. Chamadas agendadas na thread de
+     * eventos que alteram componentes da SInternalFrame selecionada são
+     * promovidas automaticamente a INTERACTIVE, mas apenas na disputa pelo pool
+     * compartilhado: dentro da chave mantêm a ordem FIFO
+     *
+     * @param priority prioridade
+     * @return instância para uso no formato fluent interface
+     * @see TaskPriority
+     */
+    public AssyncInvoker<R, T> withPriority(TaskPriority priority) {
+        this.priority = (priority == null) ? TaskPriority.NORMAL : priority;
+        return this;
+    }
+
+    /**
+     * Define o prazo da chamada, contado a partir do agendamento. Se o prazo
+     * expirar com a chamada na fila, ela não é executada; se expirar durante a
+     * execução, a thread é interrompida. Em ambos os casos uma
+     * CallTimeoutException é entregue aos TimeoutProcessor ou, na falta deles,
+     * aos tratadores de exceção. Substitui o prazo padrão da chave
+     *
+     * @param timeout prazo. Zero desativa o prazo, inclusive o padrão da chave
+     * @param unit unidade de timeout
+     * @return instância para uso no formato fluent interface
+     * @see #setDefaultTimeout(Object, long, TimeUnit)
+     * @see CallTimeoutException
+     */
+    public AssyncInvoker<R, T> withTimeout(long timeout, TimeUnit unit) {
+        this.timeoutNanos = Math.max(0, unit.toNanos(timeout));
+        return this;
+    }
+
+    /**
+     * Solicita que a chamada seja executada novamente quando falhar com uma
+     * exceção aceita pela <b>policy</b>. A espera entre tentativas não ocupa
+     * threads: a chamada é reagendada na mesma chave ao fim dela. Os
+     * processors só recebem o resultado (ou a exceção) da última tentativa
+     *
+     * @param policy política de novas tentativas
+     * @return instância para uso no formato fluent interface
+     * @see RetryPolicy
+     */
+    public AssyncInvoker<R, T> retrying(RetryPolicy policy) {
+        this.retryPolicy = policy;
+        return this;
+    }
+
+    /**
+     * Protege a chamada com o circuito <b>breaker</b>. Com o circuito aberto a
+     * chamada é recusada no agendamento, sem ocupar uma thread, e uma
+     * CircuitOpenException é entregue aos tratadores de exceção
+     *
+     * @param breaker circuito do serviço chamado
+     * @return instância para uso no formato fluent interface
+     * @see CircuitBreaker
+     */
+    public AssyncInvoker<R, T> withCircuitBreaker(CircuitBreaker breaker) {
+        this.circuitBreaker = breaker;
+        this.circuitFromTarget = false;
+        return this;
+    }
+
+    /**
+     * Protege a chamada com o circuito compartilhado do objeto alvo. Disponível
+     * apenas para chamadas criadas com <code>create(target)</code> ou
+     * <code>create(target, methodName, args)</code>
+     *
+     * @return instância para uso no formato fluent interface
+     * @see CircuitBreaker#forTarget(Object)
+     */
+    public AssyncInvoker<R, T> withCircuitBreaker() {
+        this.circuitBreaker = null;
+        this.circuitFromTarget = true;
+        return this;
+    }
+
+    /**
+     * Associa a chamada ao escopo <b>scope</b>: quando o escopo for cancelado,
+     * a chamada é cancelada, interrompida se estiver em execução, e seus
+     * processors descartados
+     *
+     * @param scope escopo
+     * @return instância para uso no formato fluent interface
+     * @see TaskScope
+     */
+    public AssyncInvoker<R, T> inScope(TaskScope scope) {
+        this.explicitScope = scope;
+        return this;
+    }
+
+    /**
+     * Associa a chamada ao escopo da janela (SInternalFrame ou SDialog) que
+     * contém <b>component</b>, cancelando-a quando a janela for fechada. Sem
+     * escopo explícito, a chamada agendada na thread de eventos é associada à
+     * janela dos componentes alterados pelos seus processors; nesse caso o
+     * fechamento da janela só remove a chamada da fila e descarta os seus
+     * processors, sem interromper a chamada em execução
+     *
+     * @param component componente da janela
+     * @return instância para uso no formato fluent interface
+     * @see TaskScope#of(Component)
+     */
+    public AssyncInvoker<R, T> inScopeOf(Component component) {
+        return inScope(TaskScope.of(component));
+    }
+
+    /**
+     * Solicita o processamento de um <b>processor</b> customizado
+     *
+     * @param processor processor
+     * @return instância para uso no formato fluent interface
+     */
+    public AssyncInvoker<R, T> processing(Processor processor) {
+        processors.add(processor);
+        return this;
+    }
+
+    /**
+     * Retorna um proxy para execução assíncrona
+     *
+     * @param executorKey executor
+     * @return proxy para execução assíncrona
+     */
+    public T invoke(Object executorKey) {
+        this.executorKey = executorKey;
         return invoke();
     }
 
@@ -390,25 +1161,290 @@ public final class AssyncInvoker<R, T> implements Runnable {
         }
     }
 
+    /**
+     * Obtém a etapa concluída no worker com o resultado (ou a exceção) da
+     * chamada, antes da execução dos processors. Deve ser obtida antes do
+     * agendamento, por exemplo ao usar <code>invoke()</code>
+     *
+     * @return etapa da chamada
+     */
+    public synchronized CompletionStage<R> getCompletionStage() {
+        if (completion == null) {
+            completion = new CompletableFuture<R>();
+        }
+        return completion;
+    }
+
+    /**
+     * Confirma o agendamento da chamada assíncrona com Callable pré definido e
+     * retorna a etapa concluída com o seu resultado
+     *
+     * @param executorKey chave do executor
+     * @return etapa da chamada
+     * @see #getCompletionStage()
+     */
+    public CompletionStage<R> scheduleAsync(Object executorKey) {
+        CompletionStage<R> stage = getCompletionStage();
+        schedule(executorKey);
+        return stage;
+    }
+
+    /**
+     * Confirma o agendamento da chamada assíncrona com Callable pré definido e
+     * retorna a etapa concluída com o seu resultado
+     *
+     * @return etapa da chamada
+     * @see #getCompletionStage()
+     */
+    public CompletionStage<R> scheduleAsync() {
+        return scheduleAsync(executorKey);
+    }
+
     /**
      * Confirma o agendamento da chamada assíncrona com Callable pré definido
      */
     public void schedule(Object executorKey) {
+        schedule(executorKey, call);
+    }
+
+    /**
+     * Agenda uma chamada capturada pelo proxy de invoke(). A chamada fica
+     * associada à task agendada, de modo que uma nova chamada ao proxy não
+     * altera o método e os argumentos das tasks anteriores nem das suas
+     * novas tentativas
+     *
+     * @param boundCall chamada capturada
+     */
+    void scheduleBound(Callable<?> boundCall) {
+        schedule(executorKey, boundCall);
+    }
+
+    /**
+     * Agenda a chamada <b>boundCall</b>, que acompanha a task até o seu fim
+     */
+    private void schedule(Object executorKey, Callable<?> boundCall) {
         this.executorKey = executorKey;
+        this.cancelled = false;
+        this.attempts = 0;
+        // Um novo agendamento participa de um novo agrupamento; as novas
+        // tentativas, que passam apenas por dispatch, mantêm o da chamada
+        this.sharedCall = null;
+        this.pipeline = ProcessorPipeline.compile(processors);
+        enterScope();
 
         preScheduleAll();
 
+        if (sourceStage != null) {
+            attachToSourceStage();
+            return;
+        }
+
+        if (deliverFromCache(boundCall)) {
+            return;
+        }
+
+        if (batcher != null) {
+            addToBatch(boundCall);
+        } else {
+            dispatch(boundCall);
+        }
+    }
+
+    /**
+     * Executa os processors quando a etapa de origem terminar
+     */
+    private void attachToSourceStage() {
+        this.registryEntry = obtainEntry(executorKey);
+        preProcessAll();
+        sourceStage.whenComplete(new BiConsumer<R, Throwable>() {
+            @Override
+            public void accept(R result, Throwable t) {
+                if (t instanceof CompletionException && t.getCause() != null) {
+                    t = t.getCause();
+                }
+                Exception ex = null;
+                if (t instanceof Exception) {
+                    ex = (Exception) t;
+                } else if (t != null) {
+                    ex = new UndeclaredThrowableException(t);
+                }
+                postProcessAll(result, ex);
+            }
+        });
+    }
+
+    /**
+     * Entrega a chamada ao agrupador em lote
+     */
+    private void addToBatch(Callable<?> boundCall) {
+        CallKey callKey = callKeyOf(boundCall);
+        if (callKey == null || callKey.getArgs().length != 1) {
+            throw new IllegalStateException("batchingWith exige uma chamada criada com target e com exatamente um argumento");
+        }
+        this.registryEntry = obtainEntry(executorKey);
+        batcher.add(callKey.getArgs()[0], this);
+    }
+
+    /**
+     * Entrega aos processors o resultado armazenado no cache, se houver
+     *
+     * @return true se o resultado foi encontrado no cache
+     */
+    private boolean deliverFromCache(Callable<?> boundCall) {
+        CallKey callKey = getCacheKey(boundCall);
+        if (callKey != null) {
+            ResultCache.Entry cached = resultCache.get(callKey);
+            if (cached != null) {
+                this.registryEntry = obtainEntry(executorKey);
+                postProcessAll(cached.getValue(), null);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param boundCall chamada agendada
+     * @return identificação da chamada no cache ou null se o cache não se aplica
+     */
+    private CallKey getCacheKey(Callable<?> boundCall) {
+        return (resultCache == null) ? null : callKeyOf(boundCall);
+    }
+
+    /**
+     * @param boundCall chamada agendada
+     * @return identificação da chamada ou null se ela não é conhecida
+     */
+    private static CallKey callKeyOf(Callable<?> boundCall) {
+        return (boundCall instanceof DescribedCallable) ? ((DescribedCallable) boundCall).getCallKey() : null;
+    }
+
+    /**
+     * Agrupa a chamada com uma chamada idêntica em curso ou a submete ao
+     * executor da chave
+     *
+     * @param boundCall chamada executada pela task
+     */
+    private void dispatch(Callable<?> boundCall) {
         // Busca ou inicializa executor solicitado
-        ExecutorService queueExecutor = executors.get(executorKey);
-        if (queueExecutor == null) {
-            queueExecutor = Executors.newSingleThreadExecutor();
-            setExecutor(queueExecutor, executorKey);
+        TaskRegistry.Entry entry = obtainEntry(executorKey);
+        this.registryEntry = entry;
+
+        if (coalescing && sharedCall == null) {
+            CallKey callKey = callKeyOf(boundCall);
+            if (callKey != null) {
+                sharedCall = coalescer.join(callKey, boundCall, this);
+                if (sharedCall == null) {
+                    return;
+                }
+            }
         }
 
-        // Submete a task e a adiciona na lista de tasks do executor
-        ManagedFutureTask task = new ManagedFutureTask(this);
-        queueExecutor.submit(task);
-        tasks.get(executorKey).add(task);
+        // Com o circuito aberto a chamada falha sem ocupar uma thread
+        CircuitBreaker breaker = resolveCircuitBreaker(boundCall);
+        if (breaker != null && !breaker.tryAcquire()) {
+            finish(null, new CircuitOpenException(breaker.getName()));
+            return;
+        }
+
+        // Adiciona a task no registro do executor antes de submetê-la, para que
+        // uma finalização imediata sempre encontre a task registrada
+        ManagedFutureTask<?> task = new ManagedFutureTask<Object>(boundCall, entry, effectivePriority());
+        this.task = task;
+        QueueBound bound = queueBounds.get(executorKey);
+        if (bound == null) {
+            entry.taskQueued(task);
+        } else if (!admit(task, entry, bound)) {
+            return;
+        }
+        try {
+            PolicyDispatcher dispatcher = dispatchers.get(executorKey);
+            if (dispatcher == null) {
+                entry.getExecutor().execute(task);
+            } else {
+                dispatcher.dispatch(task, entry);
+            }
+        } catch (RuntimeException e) {
+            task.discard();
+            throw e;
+        }
+        scheduleTimeout(task);
+    }
+
+    /**
+     * Registra a task na fila limitada da chave, aplicando a política se a
+     * fila estiver cheia
+     *
+     * @param task task da chamada
+     * @param entry entrada do registro da chave
+     * @param bound limite da fila
+     * @return true se a task deve ser submetida ao executor
+     */
+    private boolean admit(ManagedFutureTask<?> task, TaskRegistry.Entry entry, QueueBound bound) {
+        Future victim = entry.taskQueued(task, bound);
+        if (victim == null) {
+            return true;
+        }
+        QueueOverflowException overflow = new QueueOverflowException(executorKey, bound.getCapacity(), bound.getPolicy());
+        if (victim != task) {
+            ((AssyncInvoker.ManagedFutureTask) victim).overflow(overflow);
+            return true;
+        }
+        if (bound.getPolicy() == OverflowPolicy.CALLER_RUNS) {
+            // Executa numa thread do pool do perfil, fora da fila serial da
+            // chave, e nunca na thread que agendou (Swing ou AssyncTimer)
+            entry.taskOverflowed();
+            try {
+                getKeyedExecutor().poolOf(executorKey).execute(RankedRunnable.of(task));
+            } catch (RuntimeException e) {
+                task.discard();
+                throw e;
+            }
+            scheduleTimeout(task);
+        } else {
+            task.overflow(overflow);
+        }
+        return false;
+    }
+
+    /**
+     * Obtém o circuito da chamada, resolvendo o circuito do objeto alvo se
+     * solicitado
+     *
+     * @param boundCall chamada agendada
+     * @return circuito ou null se a chamada não usa circuito
+     */
+    private CircuitBreaker resolveCircuitBreaker(Callable<?> boundCall) {
+        if (circuitBreaker == null && circuitFromTarget) {
+            CallKey callKey = callKeyOf(boundCall);
+            if (callKey == null) {
+                throw new IllegalStateException("withCircuitBreaker() exige uma chamada criada com target");
+            }
+            circuitBreaker = CircuitBreaker.forTarget(callKey.getTarget());
+        }
+        return circuitBreaker;
+    }
+
+    /**
+     * Agenda a expiração do prazo da task, se a chamada possuir prazo
+     *
+     * @param task task da chamada
+     */
+    private void scheduleTimeout(final ManagedFutureTask<?> task) {
+        long nanos = timeoutNanos;
+        if (nanos < 0) {
+            Long keyTimeout = defaultTimeouts.get(executorKey);
+            nanos = (keyTimeout == null) ? 0 : keyTimeout;
+        }
+        if (nanos > 0 && !task.isDone()) {
+            task.timeoutMillis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            task.timeoutFuture = AssyncTimer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    task.timeout();
+                }
+            }, nanos, TimeUnit.NANOSECONDS);
+        }
     }
 
     /**
@@ -424,43 +1460,293 @@ public final class AssyncInvoker<R, T> implements Runnable {
      */
     @Override
     public void run() {
+        ManagedFutureTask<?> t = task;
+        execute(t, (t == null) ? call : t.call);
+    }
+
+    /**
+     * Executa a chamada associada à task
+     *
+     * @param t task em execução, ou null
+     * @param boundCall chamada da task
+     */
+    private void execute(ManagedFutureTask<?> t, Callable<?> boundCall) {
         Object result = null;
         Exception ex = null;
 
-        preProcessAll();
+        // Novas tentativas não repetem o início da chamada
+        if (attempts++ == 0) {
+            preProcessAll();
 
+            if (sharedCall != null) {
+                coalescer.start(sharedCall);
+            }
+        }
+
+        if (t != null) {
+            t.enterCall();
+        }
+        long start = System.nanoTime();
         try {
-            result = call.call();
+            result = boundCall.call();
         } catch (Exception e) {
             ex = e;
         }
+        registryEntry.getMetrics().getExecutionTime().record(System.nanoTime() - start);
+        if (t != null && t.exitCall()) {
+            result = null;
+            ex = new CallTimeoutException(executorKey, t.timeoutMillis, true);
+        }
+
+        CircuitBreaker breaker = circuitBreaker;
+        if (breaker != null) {
+            if (isCancelled()) {
+                breaker.release();
+            } else if (ex == null) {
+                breaker.recordSuccess();
+            } else {
+                breaker.recordFailure();
+            }
+        }
+
+        if (ex != null && retryPolicy != null && !isCancelled() && retryPolicy.shouldRetry(ex, attempts)) {
+            scheduleRetry(ex, boundCall);
+            return;
+        }
+
+        if (ex == null && !isCancelled()) {
+            CallKey callKey = getCacheKey(boundCall);
+            if (callKey != null) {
+                resultCache.put(callKey, result, cacheTtlNanos);
+            }
+        }
+
+        finish(result, ex);
+    }
+
+    /**
+     * Entrega o resultado final da chamada aos seguidores e aos processors
+     *
+     * @param result resultado
+     * @param ex exceção levantada pela chamada
+     */
+    private void finish(Object result, Exception ex) {
+        if (!isCancelled()) {
+            registryEntry.getMetrics().callFinished(ex == null);
+        }
+        if (sharedCall != null) {
+            coalescer.complete(sharedCall, result, ex);
+        }
 
         postProcessAll(result, ex);
     }
 
     /**
-     * Executa todos os PreScheduleProcessor agendados
+     * Reagenda a chamada após a espera da RetryPolicy
+     *
+     * @param ex exceção da tentativa que falhou
+     * @param boundCall chamada repetida, a mesma da tentativa que falhou
      */
-    private void preScheduleAll() {
-        for (Object processor : processors) {
-            if (processor instanceof PreScheduleProcessor) {
-                ((PreScheduleProcessor) processor).preSchedule(call);
+    private void scheduleRetry(final Exception ex, final Callable<?> boundCall) {
+        registryEntry.taskRetried();
+        AssyncTimer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    dispatch(boundCall);
+                } catch (RuntimeException e) {
+                    // Executor finalizado durante a espera
+                    finish(null, ex);
+                }
+            }
+        }, retryPolicy.delayMillis(attempts), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Chamado quando a chamada compartilhada ou em lote à qual esta instância
+     * foi associada inicia sua execução
+     */
+    void delegatedStart() {
+        preProcessAll();
+    }
+
+    /**
+     * Chamado com o resultado da chamada compartilhada ou em lote à qual esta
+     * instância foi associada
+     */
+    void delegatedComplete(Object result, Exception ex) {
+        postProcessAll(result, ex);
+    }
+
+    /**
+     * Chamado quando o líder da chamada compartilhada foi cancelado. A
+     * instância é agendada novamente
+     *
+     * @param boundCall chamada compartilhada, idêntica à desta instância
+     */
+    void delegatedAbandon(Callable<?> boundCall) {
+        try {
+            dispatch(boundCall);
+        } catch (RejectedExecutionException e) {
+            // Executor finalizado: a chamada não pode mais ser executada
+            postProcessAll(null, e);
+        }
+    }
+
+    /**
+     * Chamado quando o prazo da chamada expira antes de ela iniciar. Os
+     * processors (e os seguidores da chamada compartilhada) recebem a
+     * CallTimeoutException sem que a chamada seja executada
+     *
+     * @param timeoutMillis prazo da chamada
+     */
+    private void expiredInQueue(long timeoutMillis) {
+        CircuitBreaker breaker = circuitBreaker;
+        if (breaker != null) {
+            breaker.release();
+        }
+        finish(null, new CallTimeoutException(executorKey, timeoutMillis, false));
+    }
+
+    /**
+     * Registra a chamada no seu escopo, obtido dos componentes alterados pelos
+     * processors se não foi definido explicitamente
+     */
+    private void enterScope() {
+        scope = explicitScope;
+        if (scope == null) {
+            for (Processor processor : processors) {
+                Object target = processorTarget(processor);
+                if (target != null) {
+                    scope = SwingSupport.scopeOf(target);
+                    if (scope != null) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (scope != null) {
+            scope.add(this);
+        }
+    }
+
+    /**
+     * Remove a chamada finalizada do seu escopo
+     */
+    private void leaveScope() {
+        TaskScope s = scope;
+        if (s != null) {
+            s.remove(this);
+        }
+    }
+
+    /**
+     * Chamado pelo TaskScope cancelado. Descarta os processors, cancela a etapa
+     * e cancela a task. Apenas a chamada com escopo explícito é interrompida se
+     * estiver em execução; a associada automaticamente ao escopo, como um
+     * salvamento que desabilita um botão da janela, termina normalmente
+     */
+    void cancelFromScope() {
+        cancelled = true;
+        pipeline = ProcessorPipeline.EMPTY;
+        CompletableFuture<R> c = completion;
+        if (c != null) {
+            c.cancel(false);
+        }
+        ManagedFutureTask<?> t = task;
+        if (t != null) {
+            if (explicitScope != null) {
+                t.cancel(true);
+            } else {
+                t.cancelPending();
             }
         }
     }
+
+    /**
+     * @return objeto alterado pelo processor, se conhecido
+     */
+    private static Object processorTarget(Processor processor) {
+        if (processor instanceof SwapPropertyProcessor) {
+            return ((SwapPropertyProcessor) processor).getTarget();
+        } else if (processor instanceof AssignResultPostProcessor) {
+            return ((AssignResultPostProcessor) processor).getTarget();
+        }
+        return null;
+    }
+
+    /**
+     * Obtém a prioridade da chamada, promovida a INTERACTIVE se algum processor
+     * altera um componente da SInternalFrame selecionada. A prioridade promovida
+     * ordena a chamada apenas frente às chamadas das outras chaves; dentro da
+     * mesma chave a ordem de agendamento é mantida
+     *
+     * @return prioridade efetiva
+     */
+    private TaskPriority effectivePriority() {
+        if (priority != TaskPriority.INTERACTIVE) {
+            for (Processor processor : processors) {
+                Object target = processorTarget(processor);
+                if (target != null && SwingSupport.isInSelectedFrame(target)) {
+                    return TaskPriority.INTERACTIVE;
+                }
+            }
+        }
+        return priority;
+    }
+
+    /**
+     * Conclui a etapa da chamada, se ela foi solicitada
+     *
+     * @param result resultado
+     * @param ex exceção levantada pela chamada
+     */
+    private void completeStage(Object result, Exception ex) {
+        CompletableFuture<R> c = completion;
+        if (c != null) {
+            if (isCancelled()) {
+                c.cancel(false);
+            } else if (ex != null) {
+                c.completeExceptionally(ex);
+            } else {
+                c.complete((R) result);
+            }
+        }
+    }
+
+    /**
+     * Verifica se a task da chamada foi cancelada. O estado da task é consultado
+     * diretamente pois o cancelamento com interrupção pode encerrar a chamada
+     * antes da notificação em ManagedFutureTask.done()
+     *
+     * @return true se a chamada foi cancelada
+     */
+    boolean isCancelled() {
+        ManagedFutureTask<?> t = task;
+        return cancelled || (t != null && t.isCancelled());
+    }
+
+    /**
+     * Executa todos os PreScheduleProcessor agendados
+     */
+    private void preScheduleAll() {
+        pipeline.preSchedule(call);
+    }
     
     /**
-     * Executa todos os PreProcessor agendados
+     * Executa todos os PreProcessor agendados. Se não houver PreProcessor,
+     * nenhuma execução é solicitada ao ProcessorExecutor
      */
     private void preProcessAll() {
+        final ProcessorPipeline p = pipeline;
+        if (!p.hasPreProcessors()) {
+            return;
+        }
+
         Runnable preProcessExecution = new Runnable() {
             @Override
             public void run() {
-                for (Object processor : processors) {
-                    if (processor instanceof PreProcessor) {
-                        ((PreProcessor) processor).preProccess(call);
-                    }
-                }
+                p.preProcess(call);
             }
         };
         
@@ -468,44 +1754,37 @@ public final class AssyncInvoker<R, T> implements Runnable {
     }
     
     /**
-     * Executa todos os PostProcessor agendados
+     * Executa todos os PostProcessor agendados. Se não houver nada a executar
+     * para o resultado, nenhuma execução é solicitada ao ProcessorExecutor
      *
      * @param result
      * @param ex
      */
     private void postProcessAll(final Object result, final Exception ex) {
+        completeStage(result, ex);
+
+        final ProcessorPipeline p = pipeline;
+        if (!p.needsPostProcessing(ex)) {
+            leaveScope();
+            return;
+        }
+
         Runnable posProccessRunnable = new Runnable() {
             @Override
             public void run() {
-                if (getExecutor(executorKey) != null && !getExecutor(executorKey).isShutdown()) {
-                    Object res = result;
-                    for (Object processor : processors) {
-                        if (processor instanceof PostProcessor) {
-                            res = ((PostProcessor) processor).postProccess(res);
-                        }
-                    }
-
-                    if (ex != null) {
-                        boolean handled = false;
-                        for (Object processor : processors) {
-                            if (processor instanceof ExceptionProcessor) {
-                                ((ExceptionProcessor) processor).exceptionProcess(ex);
-                                handled = true;
-                            } else if (processor instanceof ExceptionExtendedProcessor) {
-                                ((ExceptionExtendedProcessor) processor).exceptionProcess(new ExceptionExtendedProcessor.AsyncExceptionData(ex, AssyncInvoker.this));
-                                handled = true;
-                            }
-                        }
-                        if (!handled) {
-                            throw ex instanceof RuntimeException ? (RuntimeException) ex : new UndeclaredThrowableException(ex);
-                        }
-                    } else {
-                        for (Object processor : processors) {
-                            if (processor instanceof SuccessProcessor) {
-                                res = ((SuccessProcessor) processor).proccessSuccess(res);
-                            }
+                // A chamada permanece no escopo até os processors executarem,
+                // para que o fechamento da janela ainda possa descartá-los
+                try {
+                    if (!isCancelled() && registryEntry.acceptsResults()) {
+                        long start = System.nanoTime();
+                        try {
+                            p.postProcess(result, ex, AssyncInvoker.this);
+                        } finally {
+                            registryEntry.getMetrics().getPostProcessTime().record(System.nanoTime() - start);
                         }
                     }
+                } finally {
+                    leaveScope();
                 }
             }
         };
@@ -513,29 +1792,244 @@ public final class AssyncInvoker<R, T> implements Runnable {
         processorExecutor.execute(posProccessRunnable);
     }
 
+    /**
+     * Corpo da ManagedFutureTask, que executa a chamada associada a ela
+     */
+    private final class TaskBody implements Runnable {
+        private ManagedFutureTask<?> task;
+
+        @Override
+        public void run() {
+            execute(task, task.call);
+        }
+    }
+
     /**
      * Future task que limpa sua instância da lista de tasks ao terminar
      *
      * @param <T>
      */
-    class ManagedFutureTask<T> extends FutureTask<T> {
+    class ManagedFutureTask<T> extends FutureTask<T> implements Prioritized {
+        private static final int NEW = 0;
+        private static final int STARTED = 1;
+        private static final int DISCARDED = 2;
+        /**
+         * Entrada do registro na qual a task foi agendada
+         */
+        private final TaskRegistry.Entry entry;
+        /**
+         * Define quem contabiliza a saída da task da fila: a execução ou o descarte
+         */
+        private final AtomicInteger state = new AtomicInteger(NEW);
+        /**
+         * Prioridade da task nos executores
+         */
+        private final TaskPriority priority;
+        /**
+         * Indica que a prioridade INTERACTIVE foi definida explicitamente e a
+         * task pode passar à frente na fila da chave
+         */
+        private final boolean overtaking;
+        /**
+         * Prazo da task e agendamento da sua expiração, se houver
+         */
+        private volatile long timeoutMillis;
+        private volatile ScheduledFuture<?> timeoutFuture;
+        /**
+         * Thread que executa a chamada, enquanto ela está em curso. Protegido
+         * pelo monitor da task
+         */
+        private Thread caller;
+        private boolean timedOut;
+        /**
+         * Instante do agendamento, para a métrica de espera na fila
+         */
+        private final long queuedNanos = System.nanoTime();
+        /**
+         * Chamada executada pela task e pelas suas novas tentativas
+         */
+        private final Callable<?> call;
 
-        public ManagedFutureTask(Runnable runnable) {
-            super(runnable, null);
+        public ManagedFutureTask(Callable<?> call, TaskRegistry.Entry entry, TaskPriority priority) {
+            this(new TaskBody(), call, entry, priority);
+        }
+
+        private ManagedFutureTask(TaskBody body, Callable<?> call, TaskRegistry.Entry entry, TaskPriority priority) {
+            super(body, null);
+            body.task = this;
+            this.call = call;
+            this.entry = entry;
+            this.priority = priority;
+            this.overtaking = AssyncInvoker.this.priority == TaskPriority.INTERACTIVE;
+            if (priority == TaskPriority.INTERACTIVE) {
+                interactiveTasks.incrementAndGet();
+            }
+        }
+
+        @Override
+        public TaskPriority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean isOvertaking() {
+            return overtaking;
+        }
+
+        @Override
+        public void run() {
+            if (state.compareAndSet(NEW, STARTED)) {
+                entry.getMetrics().getWaitTime().record(System.nanoTime() - queuedNanos);
+                entry.taskStarted(this);
+                try {
+                    super.run();
+                } finally {
+                    entry.taskFinished(this);
+                    left();
+                }
+            }
+        }
+
+        /**
+         * Remove do registro a task que não chegou a ser executada
+         */
+        boolean discard() {
+            if (state.compareAndSet(NEW, DISCARDED)) {
+                entry.taskDiscarded(this);
+                left();
+                // A task descartada não conclui a chamada de teste do circuito
+                CircuitBreaker breaker = circuitBreaker;
+                if (breaker != null) {
+                    breaker.release();
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Cancela a task somente se ela ainda não iniciou
+         *
+         * @return true se a task foi cancelada
+         */
+        boolean cancelPending() {
+            if (discard()) {
+                cancel(false);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Descarta a task que ainda não iniciou pelo limite da fila. Os
+         * processors recebem a QueueOverflowException
+         *
+         * @param overflow exceção entregue aos processors
+         */
+        void overflow(QueueOverflowException overflow) {
+            if (discard()) {
+                entry.taskOverflowed();
+                ScheduledFuture<?> f = timeoutFuture;
+                if (f != null) {
+                    f.cancel(false);
+                }
+                if (entry.getExecutor() instanceof SerialExecutor) {
+                    ((SerialExecutor) entry.getExecutor()).remove(this);
+                }
+                finish(null, overflow);
+            }
+        }
+
+        /**
+         * Marca o início da chamada na thread atual
+         */
+        synchronized void enterCall() {
+            caller = Thread.currentThread();
+        }
+
+        /**
+         * Marca o fim da chamada na thread atual
+         *
+         * @return true se a chamada excedeu o prazo e foi interrompida
+         */
+        synchronized boolean exitCall() {
+            caller = null;
+            if (timedOut) {
+                // Limpa a interrupção do prazo antes do pós-processamento
+                Thread.interrupted();
+            }
+            return timedOut;
+        }
+
+        /**
+         * Expira o prazo da task: se ainda na fila, ela é descartada e os
+         * processors recebem a CallTimeoutException; se em execução, a thread
+         * da chamada é interrompida
+         */
+        void timeout() {
+            if (state.compareAndSet(NEW, DISCARDED)) {
+                entry.taskDiscarded(this);
+                entry.taskTimedOut();
+                left();
+                expiredInQueue(timeoutMillis);
+                return;
+            }
+            synchronized (this) {
+                if (caller != null && !timedOut) {
+                    timedOut = true;
+                    entry.taskTimedOut();
+                    caller.interrupt();
+                }
+            }
+        }
+
+        /**
+         * Contabiliza a saída da task, executada ou descartada
+         */
+        private void left() {
+            if (priority == TaskPriority.INTERACTIVE) {
+                interactiveTasks.decrementAndGet();
+            }
         }
 
         @Override
         protected void done() {
-            // Remove a task da lista de tasks do executor
-            List<Future> l = tasks.get(AssyncInvoker.this.executorKey);
-            if (l != null) {
-                l.remove(this);
+            ScheduledFuture<?> f = timeoutFuture;
+            if (f != null) {
+                f.cancel(false);
             }
 
-            // Se a task foi cancelada, remove todos os pos processadores
+            // Remove a task do registro caso tenha sido cancelada antes de executar
+            discard();
+
+            // Se a task foi cancelada, descarta todos os pos processadores
             if (isCancelled()) {
-                processors.clear();
+                if (entry.getExecutor() instanceof SerialExecutor) {
+                    // Libera a task (e os objetos referenciados pelos seus
+                    // processors) sem aguardar a sua vez na fila
+                    ((SerialExecutor) entry.getExecutor()).remove(this);
+                }
+                leaveScope();
+                entry.getMetrics().callCancelled();
+                cancelled = true;
+                pipeline = ProcessorPipeline.EMPTY;
+                CompletableFuture<R> c = (CompletableFuture<R>) completion;
+                if (c != null) {
+                    c.cancel(false);
+                }
+                // Os invokers que aguardavam esta chamada elegem um novo líder
+                if (sharedCall != null) {
+                    coalescer.abandon(sharedCall);
+                }
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Carrega o ícone de carga no primeiro acesso
+     */
+    private static final class LoadingIconHolder {
+        private static final ImageIcon ICON = (AssyncInvoker.class.getResource("/icons/loading.gif") == null)
+                ? new ImageIcon() : new ImageIcon(AssyncInvoker.class.getResource("/icons/loading.gif"));
+    }
+}
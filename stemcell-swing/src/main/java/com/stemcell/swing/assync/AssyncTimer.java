@@ -0,0 +1,46 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temporizador compartilhado das chamadas assíncronas. Apenas agenda ações
+ * curtas (como submeter uma task ao seu executor), nunca executa as chamadas.
+ */
+final class AssyncTimer {
+    private static final ScheduledExecutorService TIMER;
+
+    static {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "assync-timer");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        TIMER = timer;
+    }
+
+    /**
+     * Construtor privado
+     */
+    private AssyncTimer() {
+    }
+
+    /**
+     * Agenda a ação para execução após o atraso informado
+     *
+     * @param action ação
+     * @param delay atraso
+     * @param unit unidade do atraso
+     * @return future do agendamento
+     */
+    static ScheduledFuture<?> schedule(Runnable action, long delay, TimeUnit unit) {
+        return TIMER.schedule(action, delay, unit);
+    }
+}
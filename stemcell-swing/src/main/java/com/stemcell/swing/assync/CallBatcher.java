@@ -0,0 +1,229 @@
+package com.stemcell.swing.assync;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Agrupa chamadas de um único argumento agendadas dentro de uma janela de tempo
+ * (ou até um número máximo de itens) em uma única chamada em lote. O resultado
+ * do lote é separado e cada invoker original recebe, na sua cadeia de
+ * processors, o elemento correspondente ao seu argumento.
+ * Exemplo:
+ * <pre>
+ *    CallBatcher&lt;Long, Detalhe&gt; detalhes = new CallBatcher&lt;Long, Detalhe&gt;(new CallBatcher.BulkFunction&lt;Long, Detalhe&gt;() {
+ *        public List&lt;Detalhe&gt; call(List&lt;Long&gt; ids) throws Exception {
+ *            return service.buscarDetalhes(ids);
+ *        }
+ *    }, 20, 50);
+ *
+ *    AssyncInvoker.create(service)
+ *          .batchingWith(detalhes)
+ *          .assigningResultTo(linha, "detalhe")
+ *          .invoke().buscarDetalhe(linha.getId())
+ * </pre>
+ *
+ * @param <K> tipo do argumento das chamadas individuais
+ * @param <V> tipo do resultado das chamadas individuais
+ */
+public class CallBatcher<K, V> {
+
+    /**
+     * Função que executa a chamada em lote
+     *
+     * @param <K> tipo do argumento das chamadas individuais
+     * @param <V> tipo do resultado das chamadas individuais
+     */
+    public interface BulkFunction<K, V> {
+        /**
+         * Executa a chamada em lote
+         *
+         * @param keys argumentos distintos das chamadas agrupadas
+         * @return resultados na mesma ordem de <b>keys</b>
+         * @throws Exception erro na chamada, repassado a todos os invokers do lote
+         */
+        List<V> call(List<K> keys) throws Exception;
+    }
+
+    private final BulkFunction<K, V> bulkFunction;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Object executorKey;
+    /**
+     * Invokers do lote em formação agrupados por argumento
+     */
+    private Map<K, List<AssyncInvoker<?, ?>>> pending = new LinkedHashMap<K, List<AssyncInvoker<?, ?>>>();
+
+    /**
+     * Construtor. O lote é executado no executor padrão
+     *
+     * @param bulkFunction função que executa a chamada em lote
+     * @param windowMillis janela de agrupamento em milissegundos
+     * @param maxBatchSize número máximo de argumentos distintos por lote
+     */
+    public CallBatcher(BulkFunction<K, V> bulkFunction, long windowMillis, int maxBatchSize) {
+        this(bulkFunction, windowMillis, maxBatchSize, AssyncInvoker.DEFAULT_EXECUTOR_KEY);
+    }
+
+    /**
+     * Construtor
+     *
+     * @param bulkFunction função que executa a chamada em lote
+     * @param windowMillis janela de agrupamento em milissegundos
+     * @param maxBatchSize número máximo de argumentos distintos por lote
+     * @param executorKey chave do executor no qual o lote é executado
+     */
+    public CallBatcher(BulkFunction<K, V> bulkFunction, long windowMillis, int maxBatchSize, Object executorKey) {
+        if (bulkFunction == null) {
+            throw new IllegalArgumentException("bulkFunction não pode ser nulo");
+        }
+        if (windowMillis < 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("windowMillis não pode ser negativo e maxBatchSize deve ser maior que zero");
+        }
+        this.bulkFunction = bulkFunction;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.executorKey = executorKey;
+    }
+
+    /**
+     * Adiciona o invoker ao lote em formação
+     *
+     * @param argument argumento da chamada individual, da classe K
+     * @param invoker invoker da chamada individual
+     */
+    void add(Object argument, AssyncInvoker<?, ?> invoker) {
+        @SuppressWarnings("unchecked")
+        K key = (K) argument;
+        final Map<K, List<AssyncInvoker<?, ?>>> batch;
+        boolean first;
+        boolean full;
+        synchronized (this) {
+            batch = pending;
+            first = pending.isEmpty();
+            List<AssyncInvoker<?, ?>> invokers = pending.get(key);
+            if (invokers == null) {
+                invokers = new ArrayList<AssyncInvoker<?, ?>>(1);
+                pending.put(key, invokers);
+            }
+            invokers.add(invoker);
+            full = pending.size() >= maxBatchSize;
+        }
+
+        if (full) {
+            flush(batch);
+        } else if (first) {
+            AssyncTimer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    flush(batch);
+                }
+            }, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Agenda imediatamente a execução do lote em formação
+     */
+    public void flush() {
+        Map<K, List<AssyncInvoker<?, ?>>> batch;
+        synchronized (this) {
+            batch = pending;
+        }
+        flush(batch);
+    }
+
+    /**
+     * Agenda a execução do lote <b>batch</b>, se ele ainda estiver em formação
+     *
+     * @param batch lote
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private void flush(final Map<K, List<AssyncInvoker<?, ?>>> batch) {
+        synchronized (this) {
+            if (batch != pending || pending.isEmpty()) {
+                return;
+            }
+            pending = new LinkedHashMap<K, List<AssyncInvoker<?, ?>>>();
+        }
+
+        // Garante que o lote seja concluído uma única vez: pela execução ou,
+        // se ela não acontecer, pela falha do agendamento
+        final AtomicBoolean claimed = new AtomicBoolean();
+        try {
+            AssyncInvoker.create(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    if (claimed.compareAndSet(false, true)) {
+                        execute(batch);
+                    }
+                    return null;
+                }
+            }).scheduleAsync(executorKey).whenComplete(new BiConsumer<Object, Throwable>() {
+                @Override
+                public void accept(Object ignored, Throwable t) {
+                    // Descartado pelo limite da fila, por prazo ou cancelado
+                    // antes de executar: os invokers do lote recebem a falha
+                    if (t != null && claimed.compareAndSet(false, true)) {
+                        complete(batch, null, toException(t));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor finalizado: o lote não será executado
+            if (claimed.compareAndSet(false, true)) {
+                complete(batch, null, e);
+            }
+        }
+    }
+
+    private static Exception toException(Throwable t) {
+        Throwable cause = (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+        return (cause instanceof Exception) ? (Exception) cause : new CompletionException(cause);
+    }
+
+    /**
+     * Executa a chamada em lote e entrega a cada invoker o seu elemento
+     */
+    private void execute(Map<K, List<AssyncInvoker<?, ?>>> batch) {
+        for (List<AssyncInvoker<?, ?>> invokers : batch.values()) {
+            for (AssyncInvoker<?, ?> invoker : invokers) {
+                invoker.delegatedStart();
+            }
+        }
+
+        List<K> keys = new ArrayList<K>(batch.keySet());
+        List<V> results = null;
+        Exception ex = null;
+        try {
+            results = bulkFunction.call(keys);
+            if (results == null || results.size() != keys.size()) {
+                throw new IllegalStateException("A chamada em lote retornou " + ((results == null) ? "null" : results.size() + " resultados")
+                        + " para " + keys.size() + " argumentos");
+            }
+        } catch (Exception e) {
+            ex = e;
+        }
+        complete(batch, results, ex);
+    }
+
+    /**
+     * Entrega a cada invoker do lote o seu elemento do resultado ou a falha
+     */
+    private void complete(Map<K, List<AssyncInvoker<?, ?>>> batch, List<V> results, Exception ex) {
+        int i = 0;
+        for (List<AssyncInvoker<?, ?>> invokers : batch.values()) {
+            Object result = (ex == null) ? results.get(i) : null;
+            for (AssyncInvoker<?, ?> invoker : invokers) {
+                invoker.delegatedComplete(result, ex);
+            }
+            i++;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.stemcell.swing.assync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Agrupa chamadas idênticas (mesmo alvo, método e argumentos) que estão em
+ * curso ao mesmo tempo. A primeira chamada (líder) é executada normalmente e as
+ * demais (seguidoras) aguardam seu resultado, que é entregue à cadeia de
+ * processors de cada uma delas.
+ */
+final class CallCoalescer {
+    /**
+     * Chamadas compartilhadas em curso
+     */
+    private final ConcurrentMap<CallKey, SharedCall> inFlight = new ConcurrentHashMap<CallKey, SharedCall>();
+
+    /**
+     * Associa o invoker a uma chamada idêntica em curso ou inicia uma nova
+     * chamada compartilhada
+     *
+     * @param key identificação da chamada
+     * @param call chamada do invoker, reagendada pelos seguidores se o líder
+     * for cancelado
+     * @param invoker invoker agendado
+     * @return chamada compartilhada da qual o invoker é líder, ou null se ele
+     * foi associado como seguidor de outra chamada
+     */
+    SharedCall join(CallKey key, Callable<?> call, AssyncInvoker invoker) {
+        while (true) {
+            SharedCall shared = inFlight.get(key);
+            if (shared == null) {
+                SharedCall created = new SharedCall(key, call);
+                shared = inFlight.putIfAbsent(key, created);
+                if (shared == null) {
+                    return created;
+                }
+            }
+
+            int state = shared.addFollower(invoker);
+            if (state == SharedCall.JOINED_STARTED) {
+                invoker.delegatedStart();
+            }
+            if (state != SharedCall.CLOSED) {
+                return null;
+            }
+            // A chamada terminou entre a busca e a associação
+            inFlight.remove(key, shared);
+        }
+    }
+
+    /**
+     * Notifica os seguidores de que a execução compartilhada iniciou
+     *
+     * @param shared chamada compartilhada
+     */
+    void start(SharedCall shared) {
+        for (AssyncInvoker follower : shared.markStarted()) {
+            follower.delegatedStart();
+        }
+    }
+
+    /**
+     * Encerra a chamada compartilhada e entrega o resultado aos seguidores
+     *
+     * @param shared chamada compartilhada
+     * @param result resultado
+     * @param ex exceção levantada pela chamada
+     */
+    void complete(SharedCall shared, Object result, Exception ex) {
+        inFlight.remove(shared.key, shared);
+        for (AssyncInvoker follower : shared.close()) {
+            follower.delegatedComplete(result, ex);
+        }
+    }
+
+    /**
+     * Encerra a chamada compartilhada cujo líder foi cancelado. Os seguidores
+     * são reagendados e elegem um novo líder entre si
+     *
+     * @param shared chamada compartilhada
+     */
+    void abandon(SharedCall shared) {
+        inFlight.remove(shared.key, shared);
+        for (AssyncInvoker follower : shared.close()) {
+            follower.delegatedAbandon(shared.call);
+        }
+    }
+
+    /**
+     * Chamada em curso compartilhada entre invokers
+     */
+    static final class SharedCall {
+        static final int JOINED = 0;
+        static final int JOINED_STARTED = 1;
+        static final int CLOSED = 2;
+
+        private final CallKey key;
+        private final Callable<?> call;
+        private final List<AssyncInvoker> followers = new ArrayList<AssyncInvoker>();
+        private boolean started;
+        private boolean closed;
+
+        SharedCall(CallKey key, Callable<?> call) {
+            this.key = key;
+            this.call = call;
+        }
+
+        synchronized int addFollower(AssyncInvoker invoker) {
+            if (closed) {
+                return CLOSED;
+            }
+            followers.add(invoker);
+            return started ? JOINED_STARTED : JOINED;
+        }
+
+        synchronized List<AssyncInvoker> markStarted() {
+            started = true;
+            return new ArrayList<AssyncInvoker>(followers);
+        }
+
+        synchronized List<AssyncInvoker> close() {
+            if (closed) {
+                return Collections.emptyList();
+            }
+            closed = true;
+            List<AssyncInvoker> result = new ArrayList<AssyncInvoker>(followers);
+            followers.clear();
+            return result;
+        }
+    }
+}
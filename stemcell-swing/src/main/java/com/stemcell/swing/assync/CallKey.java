@@ -0,0 +1,62 @@
+package com.stemcell.swing.assync;
+
+import java.util.Arrays;
+
+/**
+ * Identificação de uma chamada pela combinação de objeto alvo, método e
+ * argumentos. O alvo é comparado por identidade e os argumentos por valor.
+ */
+final class CallKey {
+    private final Object target;
+    private final Object method;
+    private final Object[] args;
+    private final int hash;
+
+    /**
+     * Construtor
+     *
+     * @param target objeto no qual o método é invocado
+     * @param method identificação do método (Method ou nome)
+     * @param args argumentos da chamada
+     */
+    CallKey(Object target, Object method, Object[] args) {
+        this.target = target;
+        this.method = method;
+        this.args = (args == null) ? new Object[0] : args;
+        this.hash = (System.identityHashCode(target) * 31 + method.hashCode()) * 31 + Arrays.deepHashCode(this.args);
+    }
+
+    Object getTarget() {
+        return target;
+    }
+
+    Object getMethod() {
+        return method;
+    }
+
+    Object[] getArgs() {
+        return args;
+    }
+
+    @Override @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CallKey)) {
+            return false;
+        }
+        CallKey other = (CallKey) obj;
+        return target == other.target && method.equals(other.method) && Arrays.deepEquals(args, other.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return method + Arrays.deepToString(args);
+    }
+}
@@ -0,0 +1,48 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Exceção entregue aos processors quando uma chamada assíncrona excede o seu
+ * prazo, seja aguardando na fila do executor ou em execução. Uma chamada em
+ * execução é interrompida, liberando a thread para as próximas chamadas da
+ * chave.
+ */
+public class CallTimeoutException extends TimeoutException {
+    private static final long serialVersionUID = 1L;
+
+    private final Object executorKey;
+    private final long timeoutMillis;
+    private final boolean started;
+
+    /**
+     * Construtor
+     *
+     * @param executorKey chave do executor da chamada
+     * @param timeoutMillis prazo da chamada em milissegundos
+     * @param started indica se a chamada chegou a iniciar
+     */
+    public CallTimeoutException(Object executorKey, long timeoutMillis, boolean started) {
+        super("Chamada no executor " + executorKey + " excedeu o prazo de " + timeoutMillis + " ms"
+                + (started ? "" : " aguardando na fila"));
+        this.executorKey = executorKey;
+        this.timeoutMillis = timeoutMillis;
+        this.started = started;
+    }
+
+    public Object getExecutorKey() {
+        return executorKey;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * @return true se a chamada foi interrompida durante a execução, false se
+     * o prazo expirou antes de ela iniciar
+     */
+    public boolean isStarted() {
+        return started;
+    }
+}
@@ -0,0 +1,248 @@
+package com.stemcell.swing.assync;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Disjuntor de chamadas a um serviço. Após um número de falhas consecutivas o
+ * circuito abre e as chamadas seguintes são recusadas imediatamente com
+ * CircuitOpenException, sem ocupar threads do executor. Passado o tempo de
+ * abertura, uma única chamada de teste é liberada (meio aberto): se tiver
+ * sucesso o circuito fecha, senão volta a abrir.
+ * Exemplo:
+ * <pre>
+ *    AssyncInvoker.create(model.getService())
+ *          .withCircuitBreaker()                          // Disjuntor compartilhado do serviço
+ *          .assigningResultTo(model, "cursos")
+ *          .invoke().buscarCursos(model.getCursoFiltro());
+ * </pre>
+ */
+public class CircuitBreaker {
+    /**
+     * Número padrão de falhas consecutivas para abrir o circuito
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    /**
+     * Tempo padrão que o circuito permanece aberto, em milissegundos
+     */
+    public static final long DEFAULT_OPEN_MILLIS = 30000L;
+
+    /**
+     * Estados do circuito
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Escutador das mudanças de estado do circuito
+     */
+    public interface Listener {
+
+        /**
+         * Chamado após a mudança de estado, fora do monitor do circuito
+         *
+         * @param breaker circuito
+         * @param from estado anterior
+         * @param to novo estado
+         */
+        void stateChanged(CircuitBreaker breaker, State from, State to);
+    }
+
+    /**
+     * Disjuntores compartilhados por objeto alvo
+     */
+    private static final Map<Object, CircuitBreaker> byTarget = Collections.synchronizedMap(new WeakHashMap<Object, CircuitBreaker>());
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+    /**
+     * Número de transições para cada estado, indexado pelo ordinal
+     */
+    private final AtomicLong[] transitions = new AtomicLong[State.values().length];
+    private final AtomicLong rejected = new AtomicLong();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    /**
+     * Cria o circuito com os limites padrão
+     *
+     * @param name nome do circuito
+     */
+    public CircuitBreaker(String name) {
+        this(name, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Construtor
+     *
+     * @param name nome do circuito
+     * @param failureThreshold falhas consecutivas para abrir o circuito
+     * @param openTime tempo que o circuito permanece aberto
+     * @param unit unidade de openTime
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openTime, TimeUnit unit) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold deve ser maior que zero");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = unit.toNanos(openTime);
+        for (int i = 0; i < transitions.length; i++) {
+            transitions[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Obtém o circuito compartilhado do objeto alvo, criando-o com os limites
+     * padrão se necessário
+     *
+     * @param target objeto alvo das chamadas, tipicamente o serviço remoto
+     * @return circuito do alvo
+     */
+    public static CircuitBreaker forTarget(Object target) {
+        if (target == null) {
+            throw new IllegalArgumentException("target não pode ser nulo");
+        }
+        synchronized (byTarget) {
+            CircuitBreaker breaker = byTarget.get(target);
+            if (breaker == null) {
+                breaker = new CircuitBreaker(describe(target));
+                byTarget.put(target, breaker);
+            }
+            return breaker;
+        }
+    }
+
+    private static String describe(Object target) {
+        Class<?> type = target.getClass();
+        if (java.lang.reflect.Proxy.isProxyClass(type) && type.getInterfaces().length > 0) {
+            type = type.getInterfaces()[0];
+        }
+        return type.getSimpleName();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return número de chamadas recusadas com o circuito aberto
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @param to estado de destino
+     * @return número de vezes que o circuito entrou no estado <b>to</b>
+     */
+    public long getTransitionCount(State to) {
+        return transitions[to.ordinal()].get();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Verifica se uma chamada pode ser executada. Com o circuito meio aberto,
+     * apenas uma chamada de teste é liberada por vez
+     *
+     * @return true se a chamada pode ser executada
+     */
+    public boolean tryAcquire() {
+        State from;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                from = state;
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+            } else if (state == State.HALF_OPEN && !trialInFlight) {
+                trialInFlight = true;
+                return true;
+            } else {
+                rejected.incrementAndGet();
+                return false;
+            }
+        }
+        fireStateChanged(from, State.HALF_OPEN);
+        return true;
+    }
+
+    /**
+     * Registra o sucesso de uma chamada
+     */
+    public void recordSuccess() {
+        State from;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            if (state == State.CLOSED) {
+                return;
+            }
+            from = state;
+            state = State.CLOSED;
+        }
+        fireStateChanged(from, State.CLOSED);
+    }
+
+    /**
+     * Registra a falha de uma chamada
+     */
+    public void recordFailure() {
+        State from;
+        synchronized (this) {
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (state == State.OPEN || (state == State.CLOSED && consecutiveFailures < failureThreshold)) {
+                return;
+            }
+            from = state;
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+        fireStateChanged(from, State.OPEN);
+    }
+
+    /**
+     * Libera a chamada de teste que terminou sem resultado conclusivo (por
+     * exemplo, cancelada)
+     */
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    private void fireStateChanged(State from, State to) {
+        transitions[to.ordinal()].incrementAndGet();
+        for (Listener listener : listeners) {
+            listener.stateChanged(this, from, to);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker[" + name + ", " + getState() + "]";
+    }
+}
@@ -0,0 +1,21 @@
+package com.stemcell.swing.assync;
+
+/**
+ * Exceção entregue aos processors quando a chamada é recusada porque o
+ * circuito do serviço está aberto. A chamada não chega a ocupar uma thread do
+ * executor.
+ */
+public class CircuitOpenException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String circuitName;
+
+    public CircuitOpenException(String circuitName) {
+        super("Circuito " + circuitName + " aberto: chamada recusada");
+        this.circuitName = circuitName;
+    }
+
+    public String getCircuitName() {
+        return circuitName;
+    }
+}
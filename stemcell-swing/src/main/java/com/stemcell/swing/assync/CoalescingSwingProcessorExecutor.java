@@ -0,0 +1,111 @@
+package com.stemcell.swing.assync;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * ProcessorExecutor que acumula as execuções de processors e as executa em um
+ * único evento da thread de eventos do Swing por quadro, em vez de um
+ * <code>invokeLater</code> por execução. Cada rodada respeita um tempo máximo;
+ * o que não couber fica para o próximo quadro, mantendo a interface responsiva
+ * quando muitas chamadas terminam ao mesmo tempo.
+ * Exemplo:
+ * <pre>
+ *    AssyncInvoker.defaultProcessorExecutor = new CoalescingSwingProcessorExecutor();
+ * </pre>
+ */
+public class CoalescingSwingProcessorExecutor implements ProcessorExecutor {
+    /**
+     * Intervalo padrão entre rodadas, em milissegundos
+     */
+    public static final int DEFAULT_FRAME_MILLIS = 16;
+    /**
+     * Tempo máximo padrão de cada rodada, em milissegundos
+     */
+    public static final int DEFAULT_BUDGET_MILLIS = 8;
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<Runnable>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final long budgetNanos;
+    private final Timer timer;
+
+    /**
+     * Cria o executor com o intervalo e o tempo máximo padrão
+     */
+    public CoalescingSwingProcessorExecutor() {
+        this(DEFAULT_FRAME_MILLIS, DEFAULT_BUDGET_MILLIS);
+    }
+
+    /**
+     * Construtor
+     *
+     * @param frameMillis intervalo entre rodadas em milissegundos
+     * @param budgetMillis tempo máximo de cada rodada em milissegundos. Ao menos
+     * uma execução é feita por rodada
+     */
+    public CoalescingSwingProcessorExecutor(int frameMillis, int budgetMillis) {
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.timer = new Timer(frameMillis, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                drain();
+            }
+        });
+        this.timer.setRepeats(false);
+        this.timer.setCoalesce(true);
+    }
+
+    @Override
+    public void execute(Runnable processorsRunnable) {
+        pending.offer(processorsRunnable);
+        scheduleDrain();
+    }
+
+    @Override
+    public boolean isProcessorThread() {
+        return SwingUtilities.isEventDispatchThread();
+    }
+
+    /**
+     * @return número de execuções aguardando a próxima rodada
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            timer.restart();
+        }
+    }
+
+    /**
+     * Executa as execuções acumuladas até o tempo máximo da rodada. Executado
+     * na thread de eventos
+     */
+    private void drain() {
+        drainScheduled.set(false);
+        long deadline = System.nanoTime() + budgetNanos;
+        try {
+            Runnable next;
+            do {
+                next = pending.poll();
+                if (next != null) {
+                    next.run();
+                }
+            } while (next != null && System.nanoTime() - deadline < 0);
+        } finally {
+            // Reagenda o restante, inclusive quando um processor lança exceção
+            // (que segue para o tratador de exceções da thread de eventos)
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Callable cujo alvo, método e argumentos são conhecidos antes da execução
+ */
+interface DescribedCallable<V> extends Callable<V> {
+
+    /**
+     * @return identificação da chamada ou null se ainda não for conhecida
+     */
+    CallKey getCallKey();
+}
@@ -0,0 +1,20 @@
+package com.stemcell.swing.assync;
+
+/**
+ * ProcessorExecutor que executa os processors na própria thread que concluiu a
+ * chamada, sem depender do AWT. Indicado para processamento em lote, testes e
+ * uso no servidor, onde não há thread de interface a proteger. Os processors
+ * de chamadas de chaves diferentes podem executar ao mesmo tempo.
+ * Exemplo:
+ * <pre>
+ *    AssyncInvoker.defaultProcessorExecutor = new DirectProcessorExecutor();
+ * </pre>
+ */
+public class DirectProcessorExecutor implements ProcessorExecutor {
+
+    @Override
+    public void execute(Runnable processorsRunnable) {
+        processorsRunnable.run();
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * ProcessorExecutor que executa os processors em ordem em uma única thread
+ * dedicada, sem depender do AWT. Oferece a mesma garantia da thread de eventos
+ * do Swing (processors nunca executam ao mesmo tempo) para aplicações sem
+ * interface gráfica. Uma exceção de um processor é entregue ao
+ * UncaughtExceptionHandler da thread sem interromper o laço.
+ * Exemplo:
+ * <pre>
+ *    AssyncInvoker.defaultProcessorExecutor = new EventLoopProcessorExecutor("processors");
+ * </pre>
+ */
+public class EventLoopProcessorExecutor implements ProcessorExecutor {
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+    private final Thread thread;
+    private volatile boolean shutdown;
+
+    /**
+     * Cria o executor e inicia a sua thread, que é daemon
+     *
+     * @param name nome da thread
+     */
+    public EventLoopProcessorExecutor(String name) {
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void execute(Runnable processorsRunnable) {
+        if (shutdown) {
+            throw new IllegalStateException("EventLoopProcessorExecutor " + thread.getName() + " finalizado");
+        }
+        queue.offer(processorsRunnable);
+    }
+
+    @Override
+    public boolean isProcessorThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Finaliza a thread após executar os processors já recebidos
+     */
+    public void shutdown() {
+        shutdown = true;
+        queue.offer(new Runnable() {
+            @Override
+            public void run() {
+                // Apenas acorda o laço para que ele perceba a finalização
+            }
+        });
+    }
+
+    private void loop() {
+        while (!shutdown || !queue.isEmpty()) {
+            Runnable next;
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                next.run();
+            } catch (RuntimeException e) {
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+}
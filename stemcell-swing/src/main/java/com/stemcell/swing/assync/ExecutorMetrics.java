@@ -0,0 +1,221 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de uma chave de executor do AssyncInvoker, registradas sem bloqueio
+ * pelas próprias chamadas e publicadas via JMX enquanto a chave possui
+ * executor. Separam o tempo de espera na fila, o tempo de execução da chamada
+ * (serviço) e o tempo dos processors na thread do Swing, permitindo distinguir
+ * um serviço lento de um processor lento.
+ * Exemplo:
+ * <pre>
+ *    ExecutorMetrics metrics = AssyncInvoker.getMetrics("pesquisa");
+ *    if (metrics != null &amp;&amp; metrics.getQueueDepth() &gt; 20) {
+ *        log.warn("Fila acumulada: " + metrics);
+ *    }
+ * </pre>
+ *
+ * @see AssyncInvoker#getMetrics(Object)
+ */
+public final class ExecutorMetrics implements ExecutorMetricsMXBean {
+    private final TaskRegistry.Entry entry;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+    private final LatencyHistogram postProcessTime = new LatencyHistogram();
+
+    ExecutorMetrics(TaskRegistry.Entry entry) {
+        this.entry = entry;
+    }
+
+    /**
+     * @return chave do executor
+     */
+    public Object getKey() {
+        return entry.getExecutorKey();
+    }
+
+    @Override
+    public String getExecutorKey() {
+        return String.valueOf(entry.getExecutorKey());
+    }
+
+    /**
+     * @return número de chamadas aguardando execução
+     */
+    @Override
+    public int getQueueDepth() {
+        return entry.getPendingCount();
+    }
+
+    /**
+     * @return maior número de chamadas aguardando execução ao mesmo tempo
+     */
+    @Override
+    public int getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    @Override
+    public int getRunningCount() {
+        return entry.getRunningCount();
+    }
+
+    @Override
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    @Override
+    public long getSucceededCount() {
+        return succeeded.sum();
+    }
+
+    /**
+     * @return número de chamadas concluídas com exceção, inclusive prazo
+     * excedido, circuito aberto e fila cheia
+     */
+    @Override
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getCancelledCount() {
+        return cancelled.sum();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return entry.getTimeoutCount();
+    }
+
+    @Override
+    public long getRetryCount() {
+        return entry.getRetryCount();
+    }
+
+    @Override
+    public long getOverflowCount() {
+        return entry.getOverflowCount();
+    }
+
+    /**
+     * @return tempo das chamadas entre o agendamento e o início da execução
+     */
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * @return tempo de execução das chamadas, sem os processors
+     */
+    public LatencyHistogram getExecutionTime() {
+        return executionTime;
+    }
+
+    /**
+     * @return tempo de execução dos processors após a chamada, normalmente na
+     * thread do Swing
+     */
+    public LatencyHistogram getPostProcessTime() {
+        return postProcessTime;
+    }
+
+    @Override
+    public double getWaitTimeMeanMillis() {
+        return waitTime.getMean(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getWaitTimeP95Millis() {
+        return waitTime.getPercentile(95, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getWaitTimeMaxMillis() {
+        return waitTime.getMax(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getExecutionTimeMeanMillis() {
+        return executionTime.getMean(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getExecutionTimeP95Millis() {
+        return executionTime.getPercentile(95, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getExecutionTimeMaxMillis() {
+        return executionTime.getMax(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getPostProcessTimeMeanMillis() {
+        return postProcessTime.getMean(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getPostProcessTimeP95Millis() {
+        return postProcessTime.getPercentile(95, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getPostProcessTimeMaxMillis() {
+        return postProcessTime.getMax(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void resetLatencies() {
+        waitTime.reset();
+        executionTime.reset();
+        postProcessTime.reset();
+        peakQueueDepth.set(entry.getPendingCount());
+    }
+
+    /**
+     * Registra uma chamada enfileirada
+     *
+     * @param queueDepth número de chamadas na fila, incluindo a nova chamada
+     */
+    void taskQueued(int queueDepth) {
+        submitted.increment();
+        int peak = peakQueueDepth.get();
+        while (queueDepth > peak && !peakQueueDepth.compareAndSet(peak, queueDepth)) {
+            peak = peakQueueDepth.get();
+        }
+    }
+
+    /**
+     * Registra o resultado final de uma chamada
+     *
+     * @param success true se a chamada terminou sem exceção
+     */
+    void callFinished(boolean success) {
+        if (success) {
+            succeeded.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    void callCancelled() {
+        cancelled.increment();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: fila=%d (pico %d), em execução=%d, espera p95=%.1f ms, execução p95=%.1f ms, "
+                + "processors p95=%.1f ms", getExecutorKey(), getQueueDepth(), getPeakQueueDepth(), getRunningCount(),
+                getWaitTimeP95Millis(), getExecutionTimeP95Millis(), getPostProcessTimeP95Millis());
+    }
+}
@@ -0,0 +1,55 @@
+package com.stemcell.swing.assync;
+
+/**
+ * Interface JMX das métricas de uma chave de executor do AssyncInvoker. As
+ * latências são informadas em milissegundos.
+ *
+ * @see ExecutorMetrics
+ */
+public interface ExecutorMetricsMXBean {
+
+    String getExecutorKey();
+
+    int getQueueDepth();
+
+    int getPeakQueueDepth();
+
+    int getRunningCount();
+
+    long getSubmittedCount();
+
+    long getSucceededCount();
+
+    long getFailedCount();
+
+    long getCancelledCount();
+
+    long getTimeoutCount();
+
+    long getRetryCount();
+
+    long getOverflowCount();
+
+    double getWaitTimeMeanMillis();
+
+    double getWaitTimeP95Millis();
+
+    double getWaitTimeMaxMillis();
+
+    double getExecutionTimeMeanMillis();
+
+    double getExecutionTimeP95Millis();
+
+    double getExecutionTimeMaxMillis();
+
+    double getPostProcessTimeMeanMillis();
+
+    double getPostProcessTimeP95Millis();
+
+    double getPostProcessTimeMaxMillis();
+
+    /**
+     * Descarta as latências registradas e o pico da fila
+     */
+    void resetLatencies();
+}
@@ -0,0 +1,107 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Perfil de execução usado pelo KeyedSerialExecutor. Cada perfil define um pool
+ * de threads compartilhado e limitado, sobre o qual são multiplexadas todas as
+ * chaves de executor associadas a ele.
+ */
+public class ExecutorProfile {
+    /**
+     * Tempo padrão que uma thread ociosa do pool aguarda antes de ser finalizada
+     */
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS = 60000L;
+    /**
+     * Nome do perfil
+     */
+    private final String name;
+    /**
+     * Número máximo de threads do pool
+     */
+    private final int poolSize;
+    /**
+     * Tempo de vida das threads ociosas
+     */
+    private final long keepAliveMillis;
+
+    /**
+     * Construtor
+     *
+     * @param name nome do perfil
+     * @param poolSize número máximo de threads do pool
+     */
+    public ExecutorProfile(String name, int poolSize) {
+        this(name, poolSize, DEFAULT_KEEP_ALIVE_MILLIS);
+    }
+
+    /**
+     * Construtor
+     *
+     * @param name nome do perfil
+     * @param poolSize número máximo de threads do pool
+     * @param keepAliveMillis tempo de vida das threads ociosas
+     */
+    public ExecutorProfile(String name, int poolSize, long keepAliveMillis) {
+        if (name == null) {
+            throw new IllegalArgumentException("name não pode ser nulo");
+        }
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize deve ser maior que zero");
+        }
+        this.name = name;
+        this.poolSize = poolSize;
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    /**
+     * Cria o pool de threads compartilhado deste perfil. As threads são daemon
+     * e finalizadas após o tempo de ociosidade, de modo que um perfil sem uso
+     * não mantém threads vivas. As tarefas aguardando thread são atendidas
+     * conforme a sua TaskPriority.
+     *
+     * @return pool de threads
+     */
+    protected ExecutorService createPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, keepAliveMillis, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<Runnable>(11, RankedRunnable.COMPARATOR), new ProfileThreadFactory(name));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * ThreadFactory que nomeia as threads com o nome do perfil
+     */
+    private static class ProfileThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        ProfileThreadFactory(String profileName) {
+            this.prefix = "assync-" + profileName + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.stemcell.swing.assync;
+
+import java.awt.AWTEvent;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Agendador de tarefas de baixo valor, como pré-carregamento de dados de
+ * referência e aquecimento de caches, que só devem ser executadas com a
+ * interface ociosa. Uma tarefa só inicia quando a fila de eventos do AWT está
+ * vazia, não há entrada do usuário há um intervalo mínimo e não há chamadas
+ * INTERACTIVE do AssyncInvoker em curso. As tarefas são executadas uma de cada
+ * vez pelo AssyncInvoker, na chave {@link #IDLE_EXECUTOR_KEY} com prioridade
+ * BACKGROUND, e portanto entram nas métricas e na finalização dos executores.
+ * <p>
+ * Quando chega uma entrada do usuário (teclado ou mouse), a tarefa em execução
+ * é interrompida e volta para o início da fila, sendo executada novamente desde
+ * o começo no próximo período ocioso. As tarefas devem portanto responder à
+ * interrupção e poder ser repetidas.
+ * Exemplo:
+ * <pre>
+ *    IdleScheduler.getDefault().submit(new Callable&lt;Object&gt;() {
+ *        public Object call() throws Exception {
+ *            return service.buscarEstados();
+ *        }
+ *    });
+ * </pre>
+ */
+public class IdleScheduler {
+    /**
+     * Tempo padrão sem entrada do usuário para considerar a interface ociosa
+     */
+    public static final long DEFAULT_QUIET_MILLIS = 500L;
+    /**
+     * Intervalo padrão entre verificações de ociosidade
+     */
+    public static final long DEFAULT_POLL_MILLIS = 100L;
+    /**
+     * Chave do executor no qual as tarefas ociosas são executadas
+     */
+    public static final String IDLE_EXECUTOR_KEY = "__IDLE_EXECUTOR__";
+
+    private static final long INPUT_EVENTS_MASK = AWTEvent.KEY_EVENT_MASK | AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_WHEEL_EVENT_MASK;
+
+    private static IdleScheduler defaultScheduler;
+
+    private final long quietNanos;
+    private final long pollMillis;
+    private final BlockingDeque<IdleTask<?>> queue = new LinkedBlockingDeque<IdleTask<?>>();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final AWTEventListener inputListener;
+    private volatile IdleTask<?> running;
+    private volatile long lastInputNanos = System.nanoTime();
+
+    /**
+     * Cria o agendador com os intervalos padrão
+     */
+    public IdleScheduler() {
+        this(DEFAULT_QUIET_MILLIS, DEFAULT_POLL_MILLIS);
+    }
+
+    /**
+     * Construtor
+     *
+     * @param quietMillis tempo sem entrada do usuário para considerar a interface ociosa
+     * @param pollMillis intervalo entre verificações de ociosidade
+     */
+    public IdleScheduler(long quietMillis, long pollMillis) {
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        this.pollMillis = pollMillis;
+        this.inputListener = new AWTEventListener() {
+            @Override
+            public void eventDispatched(AWTEvent event) {
+                userInput();
+            }
+        };
+        Toolkit.getDefaultToolkit().addAWTEventListener(inputListener, INPUT_EVENTS_MASK);
+    }
+
+    /**
+     * @return agendador compartilhado da aplicação
+     */
+    public static synchronized IdleScheduler getDefault() {
+        if (defaultScheduler == null) {
+            defaultScheduler = new IdleScheduler();
+        }
+        return defaultScheduler;
+    }
+
+    /**
+     * Agenda uma tarefa para execução com a interface ociosa
+     *
+     * @param task tarefa
+     * @return future da tarefa
+     */
+    public <V> Future<V> submit(Callable<V> task) {
+        IdleTask<V> idleTask = new IdleTask<V>(task);
+        queue.offer(idleTask);
+        startPolling();
+        return idleTask;
+    }
+
+    /**
+     * Agenda uma tarefa para execução com a interface ociosa
+     *
+     * @param task tarefa
+     * @return future da tarefa
+     */
+    public Future<?> submit(Runnable task) {
+        return submit(Executors.callable(task));
+    }
+
+    /**
+     * Cancela as tarefas pendentes e a tarefa em execução
+     */
+    public void cancelAll() {
+        IdleTask<?> task;
+        while ((task = queue.poll()) != null) {
+            task.cancel(false);
+        }
+        task = running;
+        if (task != null) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Cancela as tarefas e deixa de monitorar a entrada do usuário. O
+     * agendador não deve mais ser usado; se for o compartilhado, o próximo
+     * getDefault() cria um novo
+     */
+    public void dispose() {
+        Toolkit.getDefaultToolkit().removeAWTEventListener(inputListener);
+        cancelAll();
+        synchronized (IdleScheduler.class) {
+            if (defaultScheduler == this) {
+                defaultScheduler = null;
+            }
+        }
+    }
+
+    /**
+     * @return número de tarefas aguardando período ocioso
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Verifica se a interface está ociosa
+     *
+     * @return true se não há eventos na fila do AWT, entrada recente do
+     * usuário nem chamadas interativas em curso
+     */
+    public boolean isIdle() {
+        return System.nanoTime() - lastInputNanos >= quietNanos
+                && AssyncInvoker.getInteractiveTaskCount() == 0
+                && Toolkit.getDefaultToolkit().getSystemEventQueue().peekEvent() == null;
+    }
+
+    /**
+     * Registra a entrada do usuário e suspende a tarefa em execução
+     */
+    private void userInput() {
+        lastInputNanos = System.nanoTime();
+        IdleTask<?> task = running;
+        if (task != null) {
+            task.suspend();
+        }
+    }
+
+    private void startPolling() {
+        if (polling.compareAndSet(false, true)) {
+            schedulePoll();
+        }
+    }
+
+    private void schedulePoll() {
+        AssyncTimer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                poll();
+            }
+        }, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Inicia a próxima tarefa se a interface estiver ociosa
+     */
+    private void poll() {
+        if (running == null && isIdle()) {
+            final IdleTask<?> task = queue.poll();
+            if (task != null && !task.isDone()) {
+                running = task;
+                try {
+                    execute(task);
+                } catch (RejectedExecutionException e) {
+                    // AssyncInvoker em finalização: as tarefas não serão mais executadas
+                    running = null;
+                    task.cancel(false);
+                    cancelAll();
+                }
+            }
+        }
+
+        if (queue.isEmpty() && running == null) {
+            polling.set(false);
+            // Uma tarefa pode ter sido agendada entre a verificação e a liberação
+            if (queue.isEmpty() || !polling.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        schedulePoll();
+    }
+
+    /**
+     * Agenda uma tentativa da tarefa no AssyncInvoker, com prioridade BACKGROUND
+     */
+    private void execute(final IdleTask<?> task) {
+        AssyncInvoker.create(new Callable<Object>() {
+            @Override
+            public Object call() {
+                try {
+                    if (!task.attempt()) {
+                        // Suspensa pela entrada do usuário: volta ao início da fila
+                        queue.offerFirst(task);
+                    }
+                } finally {
+                    running = null;
+                }
+                return null;
+            }
+        }).withPriority(TaskPriority.BACKGROUND).scheduleAsync(IDLE_EXECUTOR_KEY).whenComplete(new BiConsumer<Object, Throwable>() {
+            @Override
+            public void accept(Object result, Throwable t) {
+                if (t != null) {
+                    // Tentativa cancelada antes de executar, como na finalização dos executores
+                    running = null;
+                    task.cancel(true);
+                }
+            }
+        });
+    }
+
+    /**
+     * Future de uma tarefa ociosa, que pode ser executada em várias tentativas
+     */
+    private static final class IdleTask<V> extends FutureTask<V> {
+        private final Callable<V> callable;
+        private volatile Thread runner;
+        private volatile boolean suspended;
+
+        IdleTask(Callable<V> callable) {
+            super(callable);
+            this.callable = callable;
+        }
+
+        /**
+         * Executa a tarefa
+         *
+         * @return false se a tentativa foi suspensa e deve ser repetida
+         */
+        boolean attempt() {
+            if (isDone()) {
+                return true;
+            }
+            suspended = false;
+            runner = Thread.currentThread();
+            try {
+                V result = callable.call();
+                if (!suspended) {
+                    set(result);
+                }
+            } catch (Exception e) {
+                if (!suspended) {
+                    setException(e);
+                }
+            } finally {
+                runner = null;
+                Thread.interrupted();
+            }
+            return !suspended || isDone();
+        }
+
+        void suspend() {
+            Thread t = runner;
+            if (t != null) {
+                suspended = true;
+                t.interrupt();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean result = super.cancel(false);
+            Thread t = runner;
+            if (result && mayInterruptIfRunning && t != null) {
+                t.interrupt();
+            }
+            return result;
+        }
+    }
+}
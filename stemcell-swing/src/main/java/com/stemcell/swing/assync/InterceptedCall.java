@@ -0,0 +1,37 @@
+package com.stemcell.swing.assync;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Chamada capturada pelo proxy de um AssyncInvoker. Imutável: cada invocação
+ * do proxy gera a sua própria instância com o método e uma cópia dos
+ * argumentos.
+ */
+final class InterceptedCall implements DescribedCallable<Object> {
+    private final Object target;
+    private final Method method;
+    private final Object[] args;
+    private final CallKey callKey;
+
+    InterceptedCall(Object target, Method method, Object[] args) {
+        this.target = target;
+        this.method = method;
+        this.args = (args == null) ? null : Arrays.copyOf(args, args.length);
+        this.callKey = new CallKey(target, method, this.args);
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public CallKey getCallKey() {
+        return callKey;
+    }
+
+    @Override
+    public Object call() throws Exception {
+        return method.invoke(target, args);
+    }
+}
@@ -0,0 +1,171 @@
+package com.stemcell.swing.assync;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Executor que mantém a ordem FIFO das chamadas de cada chave de executor,
+ * multiplexando todas as chaves sobre pools de threads compartilhados e
+ * limitados. O número de threads não cresce com o número de chaves.
+ * <p>
+ * Cada chave é associada a um ExecutorProfile (por padrão o perfil
+ * {@link #DEFAULT_PROFILE}), que define o pool usado pelas suas chamadas.
+ * Exemplo:
+ * <pre>
+ *    AssyncInvoker.getKeyedExecutor().registerProfile(new ExecutorProfile("relatorios", 2));
+ *    AssyncInvoker.getKeyedExecutor().bindProfile("exportacao", "relatorios");
+ *    AssyncInvoker.getKeyedExecutor().bindProfile("servicos", KeyedSerialExecutor.VIRTUAL_PROFILE);
+ * </pre>
+ */
+public class KeyedSerialExecutor {
+    /**
+     * Nome do perfil padrão
+     */
+    public static final String DEFAULT_PROFILE = "default";
+    /**
+     * Tamanho padrão do pool do perfil padrão
+     */
+    public static final int DEFAULT_POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    /**
+     * Nome do perfil de chamadas bloqueantes, executadas em threads virtuais
+     * quando a JVM as oferece
+     *
+     * @see VirtualThreadExecutorProfile
+     */
+    public static final String VIRTUAL_PROFILE = "virtual";
+    /**
+     * Perfis registrados por nome
+     */
+    private final Map<String, ExecutorProfile> profiles = new ConcurrentHashMap<String, ExecutorProfile>();
+    /**
+     * Nome do perfil associado a cada chave
+     */
+    private final Map<Object, String> keyProfiles = new ConcurrentHashMap<Object, String>();
+    /**
+     * Pools criados sob demanda para cada perfil
+     */
+    private final Map<String, ExecutorService> pools = new ConcurrentHashMap<String, ExecutorService>();
+
+    /**
+     * Cria o executor com o perfil padrão de tamanho {@link #DEFAULT_POOL_SIZE}
+     */
+    public KeyedSerialExecutor() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Cria o executor com o perfil padrão de tamanho <b>defaultPoolSize</b>
+     *
+     * @param defaultPoolSize tamanho do pool padrão
+     */
+    public KeyedSerialExecutor(int defaultPoolSize) {
+        registerProfile(new ExecutorProfile(DEFAULT_PROFILE, defaultPoolSize));
+        registerProfile(new VirtualThreadExecutorProfile(VIRTUAL_PROFILE, defaultPoolSize));
+    }
+
+    /**
+     * Registra um perfil de execução. Um perfil já registrado com o mesmo nome
+     * só pode ser substituído enquanto o seu pool não tiver sido criado, pois
+     * os executores das chaves associadas a ele continuam usando esse pool
+     *
+     * @param profile perfil
+     * @throws IllegalStateException se o pool do perfil substituído já está em uso
+     */
+    public void registerProfile(ExecutorProfile profile) {
+        synchronized (pools) {
+            if (pools.containsKey(profile.getName())) {
+                throw new IllegalStateException("O perfil " + profile.getName() + " já está em uso e não pode ser substituído");
+            }
+            profiles.put(profile.getName(), profile);
+        }
+    }
+
+    /**
+     * Associa a chave de executor a um perfil registrado. Vale para os
+     * executores criados a partir deste momento
+     *
+     * @param executorKey chave do executor
+     * @param profileName nome do perfil
+     */
+    public void bindProfile(Object executorKey, String profileName) {
+        if (!profiles.containsKey(profileName)) {
+            throw new IllegalArgumentException("Perfil não registrado: " + profileName);
+        }
+        keyProfiles.put(executorKey, profileName);
+    }
+
+    /**
+     * Obtém o perfil associado à chave
+     *
+     * @param executorKey chave do executor
+     * @return perfil da chave ou o perfil padrão
+     */
+    public ExecutorProfile getProfile(Object executorKey) {
+        String profileName = keyProfiles.get(executorKey);
+        ExecutorProfile profile = (profileName == null) ? null : profiles.get(profileName);
+        return (profile == null) ? profiles.get(DEFAULT_PROFILE) : profile;
+    }
+
+    /**
+     * Cria um executor serial para a chave, que compartilha o pool do perfil
+     * associado a ela
+     *
+     * @param executorKey chave do executor
+     * @return executor serial da chave
+     */
+    public ExecutorService forKey(Object executorKey) {
+        return new SerialExecutor(executorKey, getPool(getProfile(executorKey)));
+    }
+
+    /**
+     * Obtém o pool compartilhado do perfil associado à chave, no qual uma
+     * tarefa pode executar fora da ordem serial da chave
+     *
+     * @param executorKey chave do executor
+     * @return pool do perfil da chave
+     */
+    Executor poolOf(Object executorKey) {
+        return getPool(getProfile(executorKey));
+    }
+
+    /**
+     * Obtém o pool compartilhado de um perfil, para tarefas que não precisam da
+     * ordem serial de uma chave
+     *
+     * @param profileName nome do perfil
+     * @return pool do perfil
+     */
+    public Executor getProfileExecutor(String profileName) {
+        ExecutorProfile profile = profiles.get(profileName);
+        if (profile == null) {
+            throw new IllegalArgumentException("Perfil não registrado: " + profileName);
+        }
+        return getPool(profile);
+    }
+
+    /**
+     * Finaliza os pools de todos os perfis
+     */
+    public void shutdown() {
+        for (ExecutorService pool : pools.values()) {
+            pool.shutdownNow();
+        }
+        pools.clear();
+    }
+
+    private ExecutorService getPool(ExecutorProfile profile) {
+        ExecutorService pool = pools.get(profile.getName());
+        if (pool == null) {
+            synchronized (pools) {
+                pool = pools.get(profile.getName());
+                if (pool == null) {
+                    pool = profile.createPool();
+                    pools.put(profile.getName(), pool);
+                }
+            }
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,68 @@
+package com.stemcell.swing.assync;
+
+import com.stemcell.common.util.LogHistogram;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histograma de latências sem bloqueio, registradas em nanossegundos sobre um
+ * LogHistogram: os percentis são estimados com erro relativo de até 25% e o
+ * registro de um valor custa apenas algumas operações atômicas.
+ */
+public final class LatencyHistogram {
+    private final LogHistogram histogram = new LogHistogram();
+
+    /**
+     * Registra uma latência
+     *
+     * @param nanos latência em nanossegundos
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * @return número de latências registradas
+     */
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    /**
+     * @param unit unidade do retorno
+     * @return média das latências registradas
+     */
+    public double getMean(TimeUnit unit) {
+        long n = histogram.getCount();
+        return (n == 0) ? 0 : toUnit(histogram.getSum(), unit) / n;
+    }
+
+    /**
+     * @param unit unidade do retorno
+     * @return maior latência registrada
+     */
+    public double getMax(TimeUnit unit) {
+        return toUnit(histogram.getMax(), unit);
+    }
+
+    /**
+     * Estima um percentil das latências registradas
+     *
+     * @param percentile percentil, entre 0 e 100
+     * @param unit unidade do retorno
+     * @return limite superior da faixa que contém o percentil
+     */
+    public double getPercentile(double percentile, TimeUnit unit) {
+        return toUnit(histogram.getPercentile(percentile), unit);
+    }
+
+    /**
+     * Descarta as latências registradas
+     */
+    public void reset() {
+        histogram.reset();
+    }
+
+    private static double toUnit(long nanos, TimeUnit unit) {
+        return (double) nanos / unit.toNanos(1);
+    }
+}
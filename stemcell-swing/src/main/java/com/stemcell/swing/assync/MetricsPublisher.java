@@ -0,0 +1,65 @@
+package com.stemcell.swing.assync;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Publica as métricas de cada chave de executor no MBeanServer da plataforma,
+ * com o nome <code>com.stemcell.swing.assync:type=AssyncExecutor,key=&lt;chave&gt;,id=&lt;identidade&gt;</code>.
+ * A identidade da instância da chave distingue chaves diferentes com o mesmo
+ * toString, que de outro modo substituiriam as métricas uma da outra.
+ * A publicação é apenas diagnóstica: falhas do JMX não afetam as chamadas.
+ */
+final class MetricsPublisher {
+    static final String DOMAIN = "com.stemcell.swing.assync";
+
+    private MetricsPublisher() {
+    }
+
+    /**
+     * Publica as métricas da entrada, substituindo as métricas publicadas
+     * anteriormente para a mesma instância de chave
+     *
+     * @param entry entrada do registro
+     */
+    static void publish(TaskRegistry.Entry entry) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = nameOf(entry.getExecutorKey());
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(entry.getMetrics(), name);
+        } catch (JMException e) {
+            // Métricas indisponíveis via JMX; continuam acessíveis pelo AssyncInvoker
+        } catch (SecurityException e) {
+            // Idem
+        }
+    }
+
+    /**
+     * Remove a publicação das métricas da chave
+     *
+     * @param executorKey instância da chave com a qual as métricas foram publicadas
+     */
+    static void unpublish(Object executorKey) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = nameOf(executorKey);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            // Publicação já removida
+        } catch (SecurityException e) {
+            // Idem
+        }
+    }
+
+    static ObjectName nameOf(Object executorKey) throws JMException {
+        return new ObjectName(DOMAIN + ":type=AssyncExecutor,key=" + ObjectName.quote(String.valueOf(executorKey))
+                + ",id=" + Integer.toHexString(System.identityHashCode(executorKey)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.stemcell.swing.assync;
+
+/**
+ * Política aplicada quando uma chamada é agendada em uma chave cuja fila já
+ * atingiu o limite definido com {@link AssyncInvoker#setQueueBound}. A chamada
+ * descartada recebe uma QueueOverflowException nos seus tratadores de exceção.
+ */
+public enum OverflowPolicy {
+    /**
+     * Recusa a nova chamada
+     */
+    REJECT,
+    /**
+     * Descarta a chamada mais antiga da fila e aceita a nova chamada
+     */
+    DROP_OLDEST,
+    /**
+     * Descarta a chamada mais recente da fila e aceita a nova chamada no seu
+     * lugar. As chamadas mais antigas mantêm a posição, e a fila passa a
+     * conter sempre a última chamada agendada
+     */
+    DROP_NEWEST,
+    /**
+     * Executa a nova chamada numa thread do pool do perfil da chave, fora da
+     * ordem serial da chave. A chamada nunca é executada na thread que a
+     * agendou, que pode ser a thread do Swing ou a do AssyncTimer
+     */
+    CALLER_RUNS
+}
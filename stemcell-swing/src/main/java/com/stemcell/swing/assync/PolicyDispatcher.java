@@ -0,0 +1,129 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica a SchedulingPolicy de uma chave na submissão das suas tasks. Mantém
+ * o estado da política (task aguardando o intervalo, próximo início permitido)
+ * para a chave à qual pertence.
+ */
+final class PolicyDispatcher {
+    private final SchedulingPolicy policy;
+    /**
+     * Task aguardando o fim do intervalo para ser submetida
+     */
+    private RunnableFuture<?> delayed;
+    /**
+     * Instante (System.nanoTime) a partir do qual uma nova task pode iniciar
+     */
+    private long nextAllowed;
+
+    PolicyDispatcher(SchedulingPolicy policy) {
+        this.policy = policy;
+        this.nextAllowed = System.nanoTime();
+    }
+
+    SchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Submete a task, já registrada em <b>entry</b>, conforme a política
+     *
+     * @param task task
+     * @param entry entrada do registro da chave
+     */
+    void dispatch(RunnableFuture<?> task, TaskRegistry.Entry entry) {
+        switch (policy.getType()) {
+            case LATEST_WINS:
+                cancelOthers(task, entry);
+                entry.getExecutor().execute(task);
+                break;
+            case DEBOUNCE:
+                debounce(task, entry);
+                break;
+            case THROTTLE:
+                throttle(task, entry);
+                break;
+            default:
+                entry.getExecutor().execute(task);
+                break;
+        }
+    }
+
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private void cancelOthers(RunnableFuture<?> task, TaskRegistry.Entry entry) {
+        for (Future other : entry.getTasks()) {
+            if (other != task) {
+                other.cancel(true);
+            }
+        }
+    }
+
+    private void debounce(RunnableFuture<?> task, TaskRegistry.Entry entry) {
+        synchronized (this) {
+            replaceDelayed(task);
+        }
+        scheduleSubmit(task, entry, policy.getIntervalMillis());
+    }
+
+    private void throttle(RunnableFuture<?> task, TaskRegistry.Entry entry) {
+        long delayNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (delayed == null && now - nextAllowed >= 0) {
+                nextAllowed = now + TimeUnit.MILLISECONDS.toNanos(policy.getIntervalMillis());
+                delayNanos = -1;
+            } else {
+                replaceDelayed(task);
+                delayNanos = Math.max(0, nextAllowed - now);
+            }
+        }
+        if (delayNanos < 0) {
+            entry.getExecutor().execute(task);
+        } else {
+            scheduleSubmit(task, entry, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+        }
+    }
+
+    /**
+     * Cancela a task que aguardava o intervalo e a substitui pela nova. Deve
+     * ser chamado com o monitor desta instância adquirido
+     */
+    private void replaceDelayed(RunnableFuture<?> task) {
+        if (delayed != null) {
+            delayed.cancel(false);
+        }
+        delayed = task;
+    }
+
+    private void scheduleSubmit(final RunnableFuture<?> task, final TaskRegistry.Entry entry, long delayMillis) {
+        AssyncTimer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                submitDelayed(task, entry);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private void submitDelayed(RunnableFuture<?> task, TaskRegistry.Entry entry) {
+        synchronized (this) {
+            if (delayed != task) {
+                return;
+            }
+            delayed = null;
+            nextAllowed = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.getIntervalMillis());
+        }
+        if (!task.isDone()) {
+            try {
+                entry.getExecutor().execute(task);
+            } catch (RejectedExecutionException e) {
+                task.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.stemcell.swing.assync;
+
+/**
+ * Tarefa que informa sua prioridade aos executores
+ */
+interface Prioritized {
+
+    /**
+     * @return prioridade da tarefa
+     */
+    TaskPriority getPriority();
+
+    /**
+     * @return true se a tarefa pode passar à frente das tarefas da mesma chave
+     * que ainda não envelheceram, o que vale apenas para a prioridade definida
+     * explicitamente como INTERACTIVE
+     */
+    boolean isOvertaking();
+}
@@ -1,5 +1,21 @@
 package com.stemcell.swing.assync;
 
+/**
+ * Executor dos processors das chamadas assíncronas. Define em que thread os
+ * processors executam: na thread de eventos do Swing (SwingProcessorExecutor),
+ * na própria thread da chamada (DirectProcessorExecutor) ou em uma thread
+ * dedicada (EventLoopProcessorExecutor), estes dois sem depender do AWT.
+ */
 public interface ProcessorExecutor {
     void execute(Runnable processorsRunnable);
+
+    /**
+     * Indica se a thread atual é a thread dos processors, na qual nenhuma
+     * chamada pode ser executada de forma bloqueante
+     *
+     * @return true se a thread atual executa os processors
+     */
+    default boolean isProcessorThread() {
+        return false;
+    }
 }
@@ -0,0 +1,148 @@
+package com.stemcell.swing.assync;
+
+import com.stemcell.swing.assync.processor.ExceptionExtendedProcessor;
+import com.stemcell.swing.assync.processor.ExceptionProcessor;
+import com.stemcell.swing.assync.processor.PostProcessor;
+import com.stemcell.swing.assync.processor.PreProcessor;
+import com.stemcell.swing.assync.processor.PreScheduleProcessor;
+import com.stemcell.swing.assync.processor.Processor;
+import com.stemcell.swing.assync.processor.SuccessProcessor;
+import com.stemcell.swing.assync.processor.TimeoutProcessor;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Lista de processors de uma chamada separada por fase. É montada uma única vez
+ * no agendamento, preservando a ordem de registro dentro de cada fase, de modo
+ * que a execução de cada fase não precisa percorrer nem testar os demais
+ * processors, e fases vazias podem ser omitidas.
+ */
+final class ProcessorPipeline {
+    /**
+     * Pipeline sem processors
+     */
+    static final ProcessorPipeline EMPTY = compile(new ArrayList<Processor>());
+
+    private final PreScheduleProcessor[] preSchedule;
+    private final PreProcessor[] pre;
+    private final PostProcessor[] post;
+    private final SuccessProcessor[] success;
+    /**
+     * ExceptionProcessor e ExceptionExtendedProcessor na ordem de registro
+     */
+    private final Processor[] exception;
+    private final TimeoutProcessor[] timeout;
+
+    private ProcessorPipeline(List<PreScheduleProcessor> preSchedule, List<PreProcessor> pre, List<PostProcessor> post,
+            List<SuccessProcessor> success, List<Processor> exception, List<TimeoutProcessor> timeout) {
+        this.preSchedule = preSchedule.toArray(new PreScheduleProcessor[preSchedule.size()]);
+        this.pre = pre.toArray(new PreProcessor[pre.size()]);
+        this.post = post.toArray(new PostProcessor[post.size()]);
+        this.success = success.toArray(new SuccessProcessor[success.size()]);
+        this.exception = exception.toArray(new Processor[exception.size()]);
+        this.timeout = timeout.toArray(new TimeoutProcessor[timeout.size()]);
+    }
+
+    /**
+     * Separa os processors por fase
+     *
+     * @param processors processors na ordem de registro
+     * @return pipeline
+     */
+    static ProcessorPipeline compile(List<Processor> processors) {
+        List<PreScheduleProcessor> preSchedule = new ArrayList<PreScheduleProcessor>();
+        List<PreProcessor> pre = new ArrayList<PreProcessor>();
+        List<PostProcessor> post = new ArrayList<PostProcessor>();
+        List<SuccessProcessor> success = new ArrayList<SuccessProcessor>();
+        List<Processor> exception = new ArrayList<Processor>();
+        List<TimeoutProcessor> timeout = new ArrayList<TimeoutProcessor>();
+
+        for (Processor processor : processors) {
+            if (processor instanceof PreScheduleProcessor) {
+                preSchedule.add((PreScheduleProcessor) processor);
+            }
+            if (processor instanceof PreProcessor) {
+                pre.add((PreProcessor) processor);
+            }
+            if (processor instanceof PostProcessor) {
+                post.add((PostProcessor) processor);
+            }
+            if (processor instanceof SuccessProcessor) {
+                success.add((SuccessProcessor) processor);
+            }
+            if (processor instanceof ExceptionProcessor || processor instanceof ExceptionExtendedProcessor) {
+                exception.add(processor);
+            }
+            if (processor instanceof TimeoutProcessor) {
+                timeout.add((TimeoutProcessor) processor);
+            }
+        }
+        return new ProcessorPipeline(preSchedule, pre, post, success, exception, timeout);
+    }
+
+    boolean hasPreProcessors() {
+        return pre.length > 0;
+    }
+
+    /**
+     * Verifica se há algo a executar após a chamada. Uma exceção sem tratador
+     * sempre precisa ser processada, para ser relançada
+     *
+     * @param ex exceção levantada pela chamada
+     * @return true se a fase de pós-processamento não é vazia
+     */
+    boolean needsPostProcessing(Exception ex) {
+        return post.length > 0 || (ex == null ? success.length > 0 : true);
+    }
+
+    void preSchedule(Callable call) {
+        for (PreScheduleProcessor processor : preSchedule) {
+            processor.preSchedule(call);
+        }
+    }
+
+    void preProcess(Callable call) {
+        for (PreProcessor processor : pre) {
+            processor.preProccess(call);
+        }
+    }
+
+    /**
+     * Executa os PostProcessor e, conforme o resultado da chamada, os
+     * SuccessProcessor, os TimeoutProcessor (prazo excedido) ou os tratadores
+     * de exceção
+     *
+     * @param result resultado da chamada
+     * @param ex exceção levantada pela chamada
+     * @param invoker invoker da chamada, repassado aos ExceptionExtendedProcessor
+     */
+    void postProcess(Object result, Exception ex, AssyncInvoker invoker) {
+        Object res = result;
+        for (PostProcessor processor : post) {
+            res = processor.postProccess(res);
+        }
+
+        if (ex instanceof CallTimeoutException && timeout.length > 0) {
+            for (TimeoutProcessor processor : timeout) {
+                processor.timeoutProcess((CallTimeoutException) ex);
+            }
+        } else if (ex != null) {
+            if (exception.length == 0) {
+                throw ex instanceof RuntimeException ? (RuntimeException) ex : new UndeclaredThrowableException(ex);
+            }
+            for (Processor processor : exception) {
+                if (processor instanceof ExceptionProcessor) {
+                    ((ExceptionProcessor) processor).exceptionProcess(ex);
+                } else {
+                    ((ExceptionExtendedProcessor) processor).exceptionProcess(new ExceptionExtendedProcessor.AsyncExceptionData(ex, invoker));
+                }
+            }
+        } else {
+            for (SuccessProcessor processor : success) {
+                res = processor.proccessSuccess(res);
+            }
+        }
+    }
+}
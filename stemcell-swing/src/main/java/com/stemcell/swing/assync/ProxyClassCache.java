@@ -0,0 +1,109 @@
+package com.stemcell.swing.assync;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import org.springframework.cglib.core.SpringNamingPolicy;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.objenesis.SpringObjenesis;
+
+/**
+ * Cache das classes de proxy usadas pelo AssyncInvoker. A classe de proxy é
+ * gerada uma única vez por classe de objeto alvo; criar um proxy é apenas
+ * instanciar a classe gerada com o InvocationHandler da chamada. Alvos que já
+ * são proxies dinâmicos do JDK (como os proxies de serviços remotos) recebem um
+ * proxy do JDK com as mesmas interfaces; as demais classes recebem uma
+ * subclasse gerada com CGLIB, que não pode ser final.
+ */
+final class ProxyClassCache {
+    private static final SpringObjenesis objenesis = new SpringObjenesis();
+
+    private static final ClassValue<ProxyTemplate> templates = new ClassValue<ProxyTemplate>() {
+        @Override
+        protected ProxyTemplate computeValue(Class<?> type) {
+            if (Proxy.isProxyClass(type)) {
+                return new JdkProxyTemplate(type);
+            } else {
+                return new CglibProxyTemplate(type);
+            }
+        }
+    };
+
+    /**
+     * Construtor privado
+     */
+    private ProxyClassCache() {
+    }
+
+    /**
+     * Cria um proxy para a classe do objeto alvo
+     *
+     * @param targetClass classe do objeto alvo
+     * @param handler tratador das invocações do proxy
+     * @return proxy
+     */
+    static Object newProxy(Class<?> targetClass, InvocationHandler handler) {
+        return templates.get(targetClass).newInstance(handler);
+    }
+
+    /**
+     * Classe de proxy gerada para uma classe de objeto alvo
+     */
+    private abstract static class ProxyTemplate {
+        abstract Object newInstance(InvocationHandler handler);
+    }
+
+    private static final class JdkProxyTemplate extends ProxyTemplate {
+        private final Constructor<?> constructor;
+
+        JdkProxyTemplate(Class<?> type) {
+            try {
+                Class<?> proxyClass = Proxy.getProxyClass(type.getClassLoader(), type.getInterfaces());
+                this.constructor = proxyClass.getConstructor(InvocationHandler.class);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Não foi possível gerar proxy para " + type.getName(), e);
+            }
+        }
+
+        @Override
+        Object newInstance(InvocationHandler handler) {
+            try {
+                return constructor.newInstance(handler);
+            } catch (Exception e) {
+                throw new IllegalStateException("Não foi possível instanciar proxy " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+    }
+
+    private static final class CglibProxyTemplate extends ProxyTemplate {
+        private final Class<?> proxyClass;
+
+        CglibProxyTemplate(Class<?> type) {
+            Enhancer enhancer = new Enhancer();
+            enhancer.setSuperclass(type);
+            enhancer.setClassLoader(type.getClassLoader());
+            enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+            enhancer.setCallbackType(MethodInterceptor.class);
+            enhancer.setUseFactory(true);
+            this.proxyClass = enhancer.createClass();
+        }
+
+        @Override
+        Object newInstance(final InvocationHandler handler) {
+            // O construtor do alvo não é executado, assim como nos proxies do Spring
+            Factory proxy = (Factory) objenesis.newInstance(proxyClass);
+            proxy.setCallbacks(new Callback[]{new MethodInterceptor() {
+                @Override
+                public Object intercept(Object obj, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+                    return handler.invoke(obj, method, args);
+                }
+            }});
+            return proxy;
+        }
+    }
+}
@@ -1,78 +1,100 @@
 package com.stemcell.swing.assync;
 
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
-import java.util.Arrays;
-import java.util.concurrent.Callable;
-import org.aopalliance.intercept.MethodInterceptor;
-import org.aopalliance.intercept.MethodInvocation;
-import org.springframework.aop.TargetSource;
-import org.springframework.aop.framework.ProxyFactory;
 
 /**
- * Callable que constrói proxy que localiza método  e chama schedule num invoker
+ * Callable que constrói proxy que localiza método  e chama schedule num invoker.
+ * O proxy é criado a partir de uma classe gerada uma única vez por classe de
+ * objeto alvo (ProxyClassCache), e cada invocação do proxy é capturada em um
+ * InterceptedCall imutável, agendado junto com a sua própria task.
  */
-class ProxyResolveCallable<T> implements Callable, MethodInterceptor, TargetSource {
-    private T target;
-    private Method method;
-    private Object[] args;
-    private AssyncInvoker invoker;
+class ProxyResolveCallable<T> implements DescribedCallable, InvocationHandler {
+    private final T target;
+    private final AssyncInvoker invoker;
+    /**
+     * Proxy deste callable, criado sob demanda
+     */
+    private T proxy;
 
     public ProxyResolveCallable(T target, AssyncInvoker invoker) {
         this.target = target;
         this.invoker = invoker;
     }
 
+    /**
+     * Executado apenas quando o invoker é agendado sem passar pelo proxy
+     */
     @Override
     public Object call() throws Exception {
-        if (method == null) {
-            throw new IllegalStateException("Método assíncrono não foi executado. Use schedule().<metodo>(argumentos)");
-        }
-
-        return method.invoke(target, args);
-    }
-
-    public T getProxy() {
-        if (target == null) {
-            throw new IllegalStateException("Não é possível usar invoke() quando o target do AssyncInvoker não é definido");
-        } else {
-            ProxyFactory factory = new ProxyFactory();
-            factory.addAdvice(this);
-            factory.setTargetSource(this);
-            return (T) factory.getProxy();
-        }
+        throw new IllegalStateException("Método assíncrono não foi executado. Use schedule().<metodo>(argumentos)");
     }
 
+    /**
+     * @return null: a identificação pertence a cada InterceptedCall
+     */
     @Override
-    public Object invoke(MethodInvocation mi) throws Throwable {
-        this.method = mi.getMethod();
-        this.args = (mi.getArguments() == null) ? null : Arrays.copyOf(mi.getArguments(), mi.getArguments().length);
-        this.invoker.schedule();
+    public CallKey getCallKey() {
         return null;
     }
 
-    @Override
-    public Class<?> getTargetClass() {
-        if (target.getClass().getSuperclass().equals(Proxy.class)) {
-            return target.getClass().getInterfaces()[0];
-        } else {
-            return target.getClass();
+    public synchronized T getProxy() {
+        if (target == null) {
+            throw new IllegalStateException("Não é possível usar invoke() quando o target do AssyncInvoker não é definido");
+        }
+        if (proxy == null) {
+            proxy = (T) ProxyClassCache.newProxy(target.getClass(), this);
         }
+        return proxy;
     }
 
     @Override
-    public boolean isStatic() {
-        return false;
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+        this.invoker.scheduleBound(new InterceptedCall(target, method, args));
+        return defaultValue(method.getReturnType());
     }
 
-    @Override
-    public Object getTarget() throws Exception {
-        return target;
+    /**
+     * Trata localmente os métodos de Object, que não agendam chamadas
+     */
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        } else if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        } else if ("toString".equals(name)) {
+            return "AssyncInvoker proxy de " + target;
+        }
+        return null;
     }
 
-    @Override
-    public void releaseTarget(Object o) throws Exception {
-        
+    /**
+     * @return valor padrão do tipo de retorno, para que métodos com retorno
+     * primitivo possam ser chamados no proxy
+     */
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0F;
+        } else {
+            return 0D;
+        }
     }
-    
 }
@@ -0,0 +1,28 @@
+package com.stemcell.swing.assync;
+
+/**
+ * Limite da fila de uma chave de executor e a política aplicada ao excedê-lo
+ */
+final class QueueBound {
+    private final int capacity;
+    private final OverflowPolicy policy;
+
+    QueueBound(int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity deve ser maior que zero");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy não pode ser nula");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    OverflowPolicy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,42 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Exceção entregue aos processors de uma chamada recusada ou descartada porque
+ * a fila da sua chave de executor atingiu o limite.
+ */
+public class QueueOverflowException extends RejectedExecutionException {
+    private static final long serialVersionUID = 1L;
+
+    private final Object executorKey;
+    private final int capacity;
+    private final OverflowPolicy policy;
+
+    /**
+     * Construtor
+     *
+     * @param executorKey chave do executor da chamada
+     * @param capacity limite da fila da chave
+     * @param policy política que descartou a chamada
+     */
+    public QueueOverflowException(Object executorKey, int capacity, OverflowPolicy policy) {
+        super("Fila do executor " + executorKey + " atingiu o limite de " + capacity + " chamada(s): chamada descartada ("
+                + policy + ")");
+        this.executorKey = executorKey;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    public Object getExecutorKey() {
+        return executorKey;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+}
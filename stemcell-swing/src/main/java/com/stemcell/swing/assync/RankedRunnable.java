@@ -0,0 +1,83 @@
+package com.stemcell.swing.assync;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tarefa ordenada pelo instante de agendamento acrescido do envelhecimento da
+ * sua prioridade. Tarefas de mesma prioridade mantêm a ordem FIFO.
+ */
+final class RankedRunnable implements Runnable, Comparable<RankedRunnable> {
+    /**
+     * Ordena tarefas RankedRunnable; as demais são consideradas equivalentes
+     */
+    static final Comparator<Runnable> COMPARATOR = new Comparator<Runnable>() {
+        @Override
+        public int compare(Runnable r1, Runnable r2) {
+            if (r1 instanceof RankedRunnable && r2 instanceof RankedRunnable) {
+                return ((RankedRunnable) r1).compareTo((RankedRunnable) r2);
+            }
+            return 0;
+        }
+    };
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final Runnable delegate;
+    private final long rank;
+    private final long sequence;
+
+    private RankedRunnable(Runnable delegate, long rank) {
+        this.delegate = delegate;
+        this.rank = rank;
+        this.sequence = SEQUENCE.getAndIncrement();
+    }
+
+    /**
+     * Cria a tarefa ordenada pela prioridade de <b>task</b> a partir deste instante
+     *
+     * @param task tarefa
+     * @return tarefa ordenada
+     */
+    static RankedRunnable of(Runnable task) {
+        TaskPriority priority = (task instanceof Prioritized) ? ((Prioritized) task).getPriority() : TaskPriority.NORMAL;
+        return new RankedRunnable(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(priority.getAgingMillis()));
+    }
+
+    /**
+     * Cria uma tarefa com a mesma posição de ordenação desta tarefa
+     *
+     * @param task tarefa
+     * @return tarefa ordenada
+     */
+    RankedRunnable withSameRank(Runnable task) {
+        return new RankedRunnable(task, rank);
+    }
+
+    /**
+     * @return true se esta tarefa deve ser executada depois de <b>o</b>, mesmo
+     * se agendada antes dela
+     */
+    boolean isBehind(RankedRunnable o) {
+        return rank > o.rank;
+    }
+
+    Runnable getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void run() {
+        delegate.run();
+    }
+
+    @Override
+    public int compareTo(RankedRunnable o) {
+        long diff = rank - o.rank;
+        if (diff == 0) {
+            diff = sequence - o.sequence;
+        }
+        return (diff < 0) ? -1 : ((diff > 0) ? 1 : 0);
+    }
+}
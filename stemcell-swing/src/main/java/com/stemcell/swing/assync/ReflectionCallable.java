@@ -1,13 +1,15 @@
 package com.stemcell.swing.assync;
 
-import java.lang.reflect.Method;
+import com.stemcell.common.util.InvocationCache;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
-import java.util.concurrent.Callable;
 
 /**
- * Callable que localiza método e executa método via reflection
+ * Callable que localiza método e executa método via reflection. O método é
+ * resolvido pelo InvocationCache; sobrecargas com o mesmo número de argumentos
+ * são escolhidas pelos tipos dos argumentos
  */
-class ReflectionCallable implements Callable {
+class ReflectionCallable implements DescribedCallable {
 
     private Object target;
     private String methodName;
@@ -20,21 +22,20 @@ class ReflectionCallable implements Callable {
     }
 
     @Override
-    public Object call() throws Exception {
-        Method methodFound = null;
-
-        for (Method method : target.getClass().getMethods()) {
-            if (method.getName().equals(methodName) && method.getParameterTypes().length == args.length) {
-                methodFound = method;
-            }
-        }
+    public CallKey getCallKey() {
+        // O método é resolvido pelo nome e pelo número de argumentos
+        return new CallKey(target, methodName + "/" + ((args == null) ? 0 : args.length), args);
+    }
 
-        if (methodFound == null) {
-            throw new IllegalArgumentException("Método não encontrado: " + methodName);
+    @Override
+    public Object call() throws Exception {
+        // Resolvido uma única vez por classe, nome e número de argumentos
+        InvocationCache.Invoker invoker = InvocationCache.get(target.getClass(), methodName, args);
+        try {
+            return invoker.invoke(target, args);
+        } catch (Throwable t) {
+            // Mantém o mesmo encapsulamento de Method.invoke
+            throw new InvocationTargetException(t);
         }
-
-        final Method m = methodFound;
-
-        return m.invoke(target, args);
     }
 }
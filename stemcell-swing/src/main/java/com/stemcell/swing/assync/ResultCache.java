@@ -0,0 +1,348 @@
+package com.stemcell.swing.assync;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache de resultados de chamadas assíncronas, usado pelo
+ * <code>AssyncInvoker.cachingFor(...)</code>. As entradas expiram após o tempo
+ * de vida informado no armazenamento, e as menos usadas recentemente são
+ * descartadas quando o número máximo de entradas ou o peso máximo é
+ * ultrapassado.
+ * <p>
+ * Os processors podem alterar o resultado recebido (por exemplo o
+ * AddValueToListPostProcessor, ou a tela que edita o modelo em que o resultado
+ * foi atribuído). Por isso o cache armazena uma cópia do resultado e entrega
+ * uma nova cópia a cada acerto, feitas pelo Copier informado na construção.
+ * Exemplo:
+ * <pre>
+ *    AssyncInvoker.create(model.getService())
+ *          .cachingFor(5, TimeUnit.MINUTES)
+ *          .assigningResultTo(model, "estados")
+ *          .invoke().buscarEstados()
+ *
+ *    AssyncInvoker.getResultCache().invalidateMethod("buscarEstados");
+ * </pre>
+ */
+public class ResultCache {
+    /**
+     * Número máximo padrão de entradas
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+    /**
+     * Peso máximo padrão das entradas
+     */
+    public static final long DEFAULT_MAX_WEIGHT = 100000L;
+
+    /**
+     * Calcula o peso de um resultado armazenado no cache
+     */
+    public interface Weigher {
+        /**
+         * @param value resultado da chamada
+         * @return peso do resultado, maior que zero
+         */
+        long weigh(Object value);
+    }
+
+    /**
+     * Weigher padrão: coleções e mapas pesam o seu tamanho e os demais
+     * objetos pesam 1
+     */
+    public static final Weigher DEFAULT_WEIGHER = new Weigher() {
+        @Override
+        public long weigh(Object value) {
+            if (value instanceof Collection) {
+                return ((Collection) value).size() + 1L;
+            } else if (value instanceof Map) {
+                return ((Map) value).size() + 1L;
+            }
+            return 1L;
+        }
+    };
+
+    /**
+     * Copia os resultados armazenados e entregues pelo cache
+     */
+    public interface Copier {
+        /**
+         * @param value resultado da chamada
+         * @return cópia independente do resultado
+         * @throws Exception se o resultado não pode ser copiado; nesse caso ele
+         * não é armazenado ou não é entregue pelo cache
+         */
+        Object copy(Object value) throws Exception;
+    }
+
+    /**
+     * Copier padrão: copia o resultado por serialização, compartilhando apenas
+     * os valores imutáveis mais comuns
+     */
+    public static final Copier SERIALIZATION_COPIER = new Copier() {
+        @Override
+        public Object copy(Object value) throws Exception {
+            if (value == null || value instanceof String || value instanceof Number
+                    || value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+                return value;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(buffer);
+            out.writeObject(value);
+            out.close();
+            return new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray())).readObject();
+        }
+    };
+
+    /**
+     * Copier que compartilha a mesma instância do resultado, para caches cujos
+     * resultados são imutáveis ou nunca alterados pelos processors
+     */
+    public static final Copier SHARING_COPIER = new Copier() {
+        @Override
+        public Object copy(Object value) {
+            return value;
+        }
+    };
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final Weigher weigher;
+    private final Copier copier;
+    /**
+     * Entradas em ordem de acesso, da menos para a mais recentemente usada
+     */
+    private final LinkedHashMap<CallKey, Entry> entries = new LinkedHashMap<CallKey, Entry>(16, 0.75f, true);
+    private long weight;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Cria o cache com os limites padrão
+     */
+    public ResultCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT, DEFAULT_WEIGHER);
+    }
+
+    /**
+     * Construtor
+     *
+     * @param maxEntries número máximo de entradas
+     * @param maxWeight peso máximo somado das entradas
+     * @param weigher cálculo do peso de cada resultado
+     */
+    public ResultCache(int maxEntries, long maxWeight, Weigher weigher) {
+        this(maxEntries, maxWeight, weigher, SERIALIZATION_COPIER);
+    }
+
+    /**
+     * Construtor
+     *
+     * @param maxEntries número máximo de entradas
+     * @param maxWeight peso máximo somado das entradas
+     * @param weigher cálculo do peso de cada resultado
+     * @param copier cópia dos resultados armazenados e entregues
+     */
+    public ResultCache(int maxEntries, long maxWeight, Weigher weigher, Copier copier) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("maxEntries e maxWeight devem ser maiores que zero");
+        }
+        if (weigher == null) {
+            throw new IllegalArgumentException("weigher não pode ser nulo");
+        }
+        if (copier == null) {
+            throw new IllegalArgumentException("copier não pode ser nulo");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.copier = copier;
+    }
+
+    /**
+     * Busca um resultado válido para a chamada
+     *
+     * @param key identificação da chamada
+     * @return entrada com uma cópia do resultado, ou null
+     */
+    Entry get(CallKey key) {
+        Entry entry = lookup(key);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return new Entry(copier.copy(entry.value), entry.weight, entry.expiresAt);
+        } catch (Exception e) { // SUPPRESS CHECKSTYLE Illegal Catch - Copier informado pela aplicação
+            LoggerFactory.getLogger(ResultCache.class).warn("Resultado em cache não pôde ser copiado", e);
+            return null;
+        }
+    }
+
+    private synchronized Entry lookup(CallKey key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired(System.nanoTime())) {
+            remove(key);
+            expirations.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Armazena uma cópia do resultado da chamada
+     *
+     * @param key identificação da chamada
+     * @param value resultado
+     * @param ttlNanos tempo de vida da entrada em nanossegundos
+     */
+    void put(CallKey key, Object value, long ttlNanos) {
+        Object copy;
+        try {
+            copy = copier.copy(value);
+        } catch (Exception e) { // SUPPRESS CHECKSTYLE Illegal Catch - Copier informado pela aplicação
+            LoggerFactory.getLogger(ResultCache.class).debug("Resultado não armazenado: não pôde ser copiado", e);
+            return;
+        }
+        store(key, copy, ttlNanos);
+    }
+
+    private synchronized void store(CallKey key, Object value, long ttlNanos) {
+        long entryWeight = Math.max(1L, weigher.weigh(value));
+        remove(key);
+        if (entryWeight > maxWeight) {
+            return;
+        }
+        entries.put(key, new Entry(value, entryWeight, System.nanoTime() + ttlNanos));
+        weight += entryWeight;
+
+        Iterator<Entry> it = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            weight -= eldest.weight;
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(CallKey key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            weight -= old.weight;
+        }
+    }
+
+    /**
+     * Remove todas as entradas do cache
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Remove as entradas das chamadas ao método <b>methodName</b>, em qualquer
+     * objeto alvo
+     *
+     * @param methodName nome do método
+     */
+    public synchronized void invalidateMethod(String methodName) {
+        Iterator<Map.Entry<CallKey, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<CallKey, Entry> e = it.next();
+            if (methodName.equals(methodNameOf(e.getKey()))) {
+                weight -= e.getValue().weight;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove as entradas das chamadas feitas ao objeto <b>target</b>
+     *
+     * @param target objeto alvo das chamadas
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    public synchronized void invalidateTarget(Object target) {
+        Iterator<Map.Entry<CallKey, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<CallKey, Entry> e = it.next();
+            if (e.getKey().getTarget() == target) {
+                weight -= e.getValue().weight;
+                it.remove();
+            }
+        }
+    }
+
+    private static String methodNameOf(CallKey key) {
+        Object method = key.getMethod();
+        if (method instanceof Method) {
+            return ((Method) method).getName();
+        }
+        // ReflectionCallable identifica o método como nome/aridade
+        String name = String.valueOf(method);
+        int idx = name.lastIndexOf('/');
+        return (idx < 0) ? name : name.substring(0, idx);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    /**
+     * Resultado armazenado no cache
+     */
+    static final class Entry {
+        private final Object value;
+        private final long weight;
+        private final long expiresAt;
+
+        Entry(Object value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        Object getValue() {
+            return value;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
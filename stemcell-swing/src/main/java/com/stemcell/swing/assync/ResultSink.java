@@ -0,0 +1,27 @@
+package com.stemcell.swing.assync;
+
+import java.util.List;
+
+/**
+ * Destino dos resultados parciais de uma StreamingCallable. Os blocos
+ * publicados são acrescentados à lista de destino na thread de eventos, em
+ * lotes de no máximo um por quadro.
+ *
+ * @param <E> classe dos elementos publicados
+ */
+public interface ResultSink<E> {
+
+    /**
+     * Publica um bloco de resultados
+     *
+     * @param chunk elementos a acrescentar na lista de destino
+     * @throws java.util.concurrent.CancellationException se a chamada foi
+     * cancelada, para que a produção seja interrompida
+     */
+    void publish(List<? extends E> chunk);
+
+    /**
+     * @return true se a chamada foi cancelada e a produção deve ser interrompida
+     */
+    boolean isCancelled();
+}
@@ -0,0 +1,153 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de nova tentativa de chamadas que falharam, com espera exponencial
+ * e variação aleatória (jitter) entre as tentativas. A espera não ocupa
+ * threads do executor: a chamada é reagendada na mesma chave ao fim dela.
+ * Exemplo:
+ * <pre>
+ *    AssyncInvoker.create(model.getService())
+ *          .retrying(RetryPolicy.exponential(3, 200).retryingOn(RemoteAccessException.class))
+ *          .assigningResultTo(model, "cursos")
+ *          .invoke().buscarCursos(model.getCursoFiltro());
+ * </pre>
+ * Instâncias são imutáveis; os métodos <code>with...</code> retornam cópias.
+ */
+public final class RetryPolicy {
+    /**
+     * Fator padrão de crescimento da espera entre tentativas
+     */
+    public static final double DEFAULT_MULTIPLIER = 2.0;
+    /**
+     * Variação padrão da espera, como fração da espera calculada
+     */
+    public static final double DEFAULT_JITTER = 0.2;
+    /**
+     * Espera máxima padrão entre tentativas, em milissegundos
+     */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 30000L;
+
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double multiplier;
+    private final double jitter;
+    private final Class<? extends Throwable>[] retryOn;
+
+    private RetryPolicy(int maxAttempts, long initialDelayMillis, long maxDelayMillis, double multiplier, double jitter,
+            Class<? extends Throwable>[] retryOn) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts deve ser maior que zero");
+        }
+        if (initialDelayMillis < 0 || maxDelayMillis < 0) {
+            throw new IllegalArgumentException("As esperas não podem ser negativas");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier deve ser maior ou igual a 1");
+        }
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("jitter deve estar entre 0 e 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryOn = retryOn;
+    }
+
+    /**
+     * Cria uma política com espera exponencial, que tenta novamente para
+     * qualquer exceção
+     *
+     * @param maxAttempts número máximo de tentativas, incluindo a primeira
+     * @param initialDelayMillis espera antes da segunda tentativa
+     * @return política
+     */
+    public static RetryPolicy exponential(int maxAttempts, long initialDelayMillis) {
+        return new RetryPolicy(maxAttempts, initialDelayMillis, DEFAULT_MAX_DELAY_MILLIS, DEFAULT_MULTIPLIER, DEFAULT_JITTER,
+                new Class[]{Exception.class});
+    }
+
+    /**
+     * @param maxDelayMillis espera máxima entre tentativas
+     * @return cópia da política com a espera máxima informada
+     */
+    public RetryPolicy withMaxDelay(long maxDelayMillis) {
+        return new RetryPolicy(maxAttempts, initialDelayMillis, maxDelayMillis, multiplier, jitter, retryOn);
+    }
+
+    /**
+     * @param multiplier fator de crescimento da espera a cada tentativa
+     * @return cópia da política com o fator informado
+     */
+    public RetryPolicy withMultiplier(double multiplier) {
+        return new RetryPolicy(maxAttempts, initialDelayMillis, maxDelayMillis, multiplier, jitter, retryOn);
+    }
+
+    /**
+     * @param jitter variação aleatória da espera, como fração dela (0 a 1)
+     * @return cópia da política com a variação informada
+     */
+    public RetryPolicy withJitter(double jitter) {
+        return new RetryPolicy(maxAttempts, initialDelayMillis, maxDelayMillis, multiplier, jitter, retryOn);
+    }
+
+    /**
+     * Restringe as novas tentativas às exceções das classes informadas,
+     * procuradas também nas causas da exceção levantada
+     *
+     * @param types classes de exceção transitórias
+     * @return cópia da política restrita às classes informadas
+     */
+    public RetryPolicy retryingOn(Class<? extends Throwable>... types) {
+        if (types == null || types.length == 0) {
+            throw new IllegalArgumentException("Informe ao menos uma classe de exceção");
+        }
+        return new RetryPolicy(maxAttempts, initialDelayMillis, maxDelayMillis, multiplier, jitter, types.clone());
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Verifica se a chamada deve ser executada novamente. Cancelamentos e
+     * circuitos abertos nunca são repetidos
+     *
+     * @param ex exceção levantada pela tentativa
+     * @param attempts número de tentativas já realizadas
+     * @return true se deve haver nova tentativa
+     */
+    boolean shouldRetry(Exception ex, int attempts) {
+        if (attempts >= maxAttempts || ex instanceof CircuitOpenException || ex instanceof CancellationException
+                || ex instanceof InterruptedException) {
+            return false;
+        }
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            for (Class<? extends Throwable> type : retryOn) {
+                if (type.isInstance(t)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calcula a espera antes da próxima tentativa
+     *
+     * @param attempts número de tentativas já realizadas
+     * @return espera em milissegundos
+     */
+    long delayMillis(int attempts) {
+        double delay = Math.min(maxDelayMillis, initialDelayMillis * Math.pow(multiplier, attempts - 1));
+        if (jitter > 0) {
+            delay += delay * jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        }
+        return Math.max(0, Math.round(delay));
+    }
+}
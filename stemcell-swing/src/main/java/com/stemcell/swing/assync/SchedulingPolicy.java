@@ -0,0 +1,88 @@
+package com.stemcell.swing.assync;
+
+/**
+ * Política de agendamento das chamadas de uma chave de executor. Por padrão as
+ * chamadas de uma chave são executadas em ordem FIFO.
+ * Exemplo:
+ * <pre>
+ *    AssyncInvoker.setSchedulingPolicy("buscaCliente", SchedulingPolicy.debounce(300));
+ * </pre>
+ */
+public final class SchedulingPolicy {
+
+    /**
+     * Tipos de política
+     */
+    public enum Type {
+        /**
+         * Todas as chamadas são executadas, na ordem de agendamento
+         */
+        FIFO,
+        /**
+         * Uma nova chamada cancela as chamadas pendentes e a chamada em execução
+         */
+        LATEST_WINS,
+        /**
+         * A chamada só é executada após o intervalo sem novos agendamentos; as
+         * anteriores são canceladas
+         */
+        DEBOUNCE,
+        /**
+         * No máximo uma chamada é iniciada por intervalo; dentro do intervalo
+         * apenas a última chamada agendada é mantida
+         */
+        THROTTLE
+    }
+
+    /**
+     * Política padrão: ordem FIFO
+     */
+    public static final SchedulingPolicy FIFO = new SchedulingPolicy(Type.FIFO, 0);
+
+    private final Type type;
+    private final long intervalMillis;
+
+    private SchedulingPolicy(Type type, long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("intervalMillis não pode ser negativo");
+        }
+        this.type = type;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * @return política em que a última chamada agendada cancela as demais
+     */
+    public static SchedulingPolicy latestWins() {
+        return new SchedulingPolicy(Type.LATEST_WINS, 0);
+    }
+
+    /**
+     * @param intervalMillis intervalo de silêncio em milissegundos
+     * @return política que só executa a chamada após o intervalo sem novos agendamentos
+     */
+    public static SchedulingPolicy debounce(long intervalMillis) {
+        return new SchedulingPolicy(Type.DEBOUNCE, intervalMillis);
+    }
+
+    /**
+     * @param intervalMillis intervalo mínimo entre inícios de chamadas em milissegundos
+     * @return política que limita a taxa de chamadas
+     */
+    public static SchedulingPolicy throttle(long intervalMillis) {
+        return new SchedulingPolicy(Type.THROTTLE, intervalMillis);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return (type == Type.FIFO || type == Type.LATEST_WINS) ? type.name() : type.name() + "(" + intervalMillis + "ms)";
+    }
+}
@@ -0,0 +1,229 @@
+package com.stemcell.swing.assync;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor que executa as tarefas de uma chave em ordem FIFO, uma de cada vez,
+ * usando as threads de um pool compartilhado. Nenhuma thread fica associada à
+ * chave enquanto não houver tarefas na fila. A prioridade das tarefas
+ * (Prioritized) ordena a disputa pelo pool compartilhado com as tarefas das
+ * outras chaves; dentro da chave, apenas as tarefas que passam à frente
+ * (isOvertaking) alteram a ordem FIFO, ultrapassando as tarefas agendadas que
+ * ainda não envelheceram além delas.
+ */
+class SerialExecutor extends AbstractExecutorService {
+    /**
+     * Chave do executor
+     */
+    private final Object executorKey;
+    /**
+     * Pool compartilhado que efetivamente executa as tarefas
+     */
+    private final Executor pool;
+    /**
+     * Fila de tarefas aguardando execução
+     */
+    private final LinkedList<RankedRunnable> queue = new LinkedList<RankedRunnable>();
+    /**
+     * Monitor da fila e do estado do executor
+     */
+    private final Object lock = new Object();
+    /**
+     * Tarefa em execução no momento
+     */
+    private RankedRunnable active;
+    /**
+     * Thread do pool que executa a tarefa ativa
+     */
+    private Thread activeThread;
+    private boolean shutdown;
+
+    SerialExecutor(Object executorKey, Executor pool) {
+        this.executorKey = executorKey;
+        this.pool = pool;
+    }
+
+    public Object getExecutorKey() {
+        return executorKey;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        synchronized (lock) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor " + executorKey + " finalizado");
+            }
+            enqueue(RankedRunnable.of(command));
+            if (active == null) {
+                scheduleNext(true);
+            }
+        }
+    }
+
+    /**
+     * Acrescenta a tarefa ao fim da fila ou, se ela passa à frente, logo
+     * depois da última tarefa que não fica atrás dela, mantendo a ordem FIFO
+     * entre as tarefas que passam à frente. Deve ser chamado com o monitor
+     * <b>lock</b> adquirido
+     */
+    private void enqueue(RankedRunnable ranked) {
+        Runnable task = ranked.getDelegate();
+        if (!(task instanceof Prioritized) || !((Prioritized) task).isOvertaking()) {
+            queue.addLast(ranked);
+            return;
+        }
+        ListIterator<RankedRunnable> it = queue.listIterator(queue.size());
+        while (it.hasPrevious()) {
+            if (!it.previous().isBehind(ranked)) {
+                it.next();
+                break;
+            }
+        }
+        it.add(ranked);
+    }
+
+    /**
+     * Submete a próxima tarefa da fila ao pool compartilhado. Deve ser chamado
+     * com o monitor <b>lock</b> adquirido
+     *
+     * @param rethrow true para repassar a rejeição do pool a quem submeteu a
+     * tarefa; false para cancelar também a tarefa rejeitada
+     */
+    private void scheduleNext(boolean rethrow) {
+        final RankedRunnable next = queue.poll();
+        active = next;
+        if (next == null) {
+            lock.notifyAll();
+            return;
+        }
+        try {
+            // A tarefa disputa o pool com a mesma ordenação que tinha na fila
+            pool.execute(next.withSameRank(new Runnable() {
+                @Override
+                public void run() {
+                    runActive(next);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            // Pool compartilhado finalizado: cancela a fila desta chave para
+            // que as tarefas pendentes não fiquem sem conclusão
+            List<RankedRunnable> discarded = new ArrayList<RankedRunnable>(queue);
+            if (!rethrow) {
+                discarded.add(next);
+            }
+            queue.clear();
+            active = null;
+            shutdown = true;
+            lock.notifyAll();
+            for (RankedRunnable ranked : discarded) {
+                if (ranked.getDelegate() instanceof Future) {
+                    ((Future<?>) ranked.getDelegate()).cancel(false);
+                }
+            }
+            if (rethrow) {
+                throw e;
+            }
+        }
+    }
+
+    private void runActive(Runnable task) {
+        synchronized (lock) {
+            activeThread = Thread.currentThread();
+        }
+        try {
+            task.run();
+        } finally {
+            synchronized (lock) {
+                activeThread = null;
+                // Limpa flag de interrupção para não contaminar a thread do pool
+                Thread.interrupted();
+                scheduleNext(false);
+            }
+        }
+    }
+
+    /**
+     * Remove da fila uma tarefa que ainda não iniciou, como uma task cancelada,
+     * liberando as referências mantidas por ela
+     *
+     * @param command tarefa
+     * @return true se a tarefa estava na fila
+     */
+    boolean remove(Runnable command) {
+        synchronized (lock) {
+            for (Iterator<RankedRunnable> it = queue.iterator(); it.hasNext();) {
+                if (it.next().getDelegate() == command) {
+                    it.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        synchronized (lock) {
+            shutdown = true;
+            List<Runnable> pending = new ArrayList<Runnable>(queue.size());
+            for (RankedRunnable ranked : queue) {
+                pending.add(ranked.getDelegate());
+            }
+            queue.clear();
+            if (activeThread != null) {
+                activeThread.interrupt();
+            }
+            lock.notifyAll();
+            return pending;
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        synchronized (lock) {
+            return shutdown;
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        synchronized (lock) {
+            return shutdown && active == null && queue.isEmpty();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock) {
+            while (!(shutdown && active == null && queue.isEmpty())) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Política de finalização dos executores do AssyncInvoker. Define o destino das
+ * chamadas ainda na fila e por quanto tempo as chamadas em execução são
+ * aguardadas antes de serem interrompidas.
+ *
+ * @see AssyncInvoker#shutdown(ShutdownPolicy)
+ */
+public final class ShutdownPolicy {
+    /**
+     * Prazo padrão para o fim das chamadas em execução, em milissegundos
+     */
+    public static final long DEFAULT_DEADLINE_MILLIS = 5000L;
+    /**
+     * Política padrão: cancela a fila e aguarda as chamadas em execução
+     */
+    public static final ShutdownPolicy DEFAULT = cancelQueued(DEFAULT_DEADLINE_MILLIS, TimeUnit.MILLISECONDS);
+
+    private final boolean drainQueued;
+    private final long deadlineNanos;
+
+    private ShutdownPolicy(boolean drainQueued, long deadlineNanos) {
+        if (deadlineNanos < 0) {
+            throw new IllegalArgumentException("O prazo não pode ser negativo");
+        }
+        this.drainQueued = drainQueued;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Executa as chamadas da fila e aguarda o fim de todas até o prazo
+     *
+     * @param deadline prazo para o fim das chamadas
+     * @param unit unidade de deadline
+     * @return política
+     */
+    public static ShutdownPolicy drain(long deadline, TimeUnit unit) {
+        return new ShutdownPolicy(true, unit.toNanos(deadline));
+    }
+
+    /**
+     * Cancela as chamadas da fila e aguarda o fim das chamadas em execução até
+     * o prazo
+     *
+     * @param deadline prazo para o fim das chamadas em execução
+     * @param unit unidade de deadline
+     * @return política
+     */
+    public static ShutdownPolicy cancelQueued(long deadline, TimeUnit unit) {
+        return new ShutdownPolicy(false, unit.toNanos(deadline));
+    }
+
+    /**
+     * @return true se as chamadas da fila são executadas
+     */
+    public boolean isDrainQueued() {
+        return drainQueued;
+    }
+
+    public long getDeadline(TimeUnit unit) {
+        return unit.convert(deadlineNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "ShutdownPolicy[" + (drainQueued ? "drain" : "cancelQueued") + ", " + getDeadline(TimeUnit.MILLISECONDS) + " ms]";
+    }
+}
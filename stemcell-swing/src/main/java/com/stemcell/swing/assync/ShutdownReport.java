@@ -0,0 +1,65 @@
+package com.stemcell.swing.assync;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resultado da finalização dos executores do AssyncInvoker
+ *
+ * @see AssyncInvoker#shutdown(ShutdownPolicy)
+ */
+public final class ShutdownReport {
+    private final int cancelledQueued;
+    private final Map<Object, Integer> abandoned;
+    private final long elapsedMillis;
+
+    ShutdownReport(int cancelledQueued, Map<Object, Integer> abandoned, long elapsedMillis) {
+        this.cancelledQueued = cancelledQueued;
+        this.abandoned = Collections.unmodifiableMap(new LinkedHashMap<Object, Integer>(abandoned));
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return número de chamadas da fila canceladas pela política
+     */
+    public int getCancelledQueued() {
+        return cancelledQueued;
+    }
+
+    /**
+     * @return número de chamadas, por chave de executor, que não terminaram no
+     * prazo e foram interrompidas ou descartadas
+     */
+    public Map<Object, Integer> getAbandoned() {
+        return abandoned;
+    }
+
+    /**
+     * @return total de chamadas abandonadas
+     */
+    public int getAbandonedCount() {
+        int total = 0;
+        for (Integer count : abandoned.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return true se todas as chamadas aguardadas terminaram no prazo
+     */
+    public boolean isCompletedInTime() {
+        return abandoned.isEmpty();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Finalização do AssyncInvoker em %d ms: %d chamada(s) da fila cancelada(s), %d abandonada(s) %s",
+                elapsedMillis, cancelledQueued, getAbandonedCount(), abandoned);
+    }
+}
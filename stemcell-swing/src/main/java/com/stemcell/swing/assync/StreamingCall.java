@@ -0,0 +1,170 @@
+package com.stemcell.swing.assync;
+
+import com.stemcell.common.util.SerializableObservableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adapta uma StreamingCallable para execução no AssyncInvoker. Os blocos
+ * publicados pelo worker são acumulados e acrescentados à lista de destino no
+ * ProcessorExecutor da chamada com um único addAll por quadro. O resultado da
+ * chamada é o número de elementos publicados. Numa nova tentativa, os
+ * elementos incluídos pela tentativa anterior são removidos da lista.
+ *
+ * @param <E> classe dos elementos produzidos
+ */
+class StreamingCall<E> implements Callable<Integer>, ResultSink<E> {
+    /**
+     * Intervalo entre as inclusões na lista, em milissegundos
+     */
+    static final int FRAME_MILLIS = 16;
+
+    private final StreamingCallable<E> producer;
+    private final SerializableObservableList<E> target;
+    private final Queue<List<? extends E>> pending = new ConcurrentLinkedQueue<List<? extends E>>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicInteger published = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    /**
+     * Indica que os elementos da tentativa anterior ainda não foram removidos;
+     * até lá os blocos da nova tentativa não são incluídos
+     */
+    private final AtomicBoolean rollbackPending = new AtomicBoolean();
+    /**
+     * Elementos incluídos na lista pela tentativa atual, acessados em flush()
+     */
+    private final List<E> delivered = new ArrayList<E>();
+    /**
+     * Inclusão dos blocos acumulados, executada no ProcessorExecutor
+     */
+    private final Runnable flushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+    /**
+     * Remoção dos elementos da tentativa anterior, executada no ProcessorExecutor
+     */
+    private final Runnable rollbackRunnable = new Runnable() {
+        @Override
+        public void run() {
+            rollback();
+        }
+    };
+    /**
+     * Invoker da chamada, consultado para verificar o cancelamento
+     */
+    private volatile AssyncInvoker<Integer, Object> invoker;
+
+    StreamingCall(StreamingCallable<E> producer, SerializableObservableList<E> target) {
+        this.producer = producer;
+        this.target = target;
+    }
+
+    void setInvoker(AssyncInvoker<Integer, Object> invoker) {
+        this.invoker = invoker;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        if (started.getAndSet(true)) {
+            // Nova tentativa: descarta o que a anterior publicou
+            rollbackPending.set(true);
+            pending.clear();
+            published.set(0);
+            invoker.getProcessorExecutor().execute(rollbackRunnable);
+        }
+        try {
+            producer.call(this);
+        } finally {
+            // Entrega o restante antes dos processors de fim da chamada, que
+            // são enfileirados depois no mesmo ProcessorExecutor
+            invoker.getProcessorExecutor().execute(flushRunnable);
+        }
+        return published.get();
+    }
+
+    @Override
+    public void publish(List<? extends E> chunk) {
+        if (isCancelled()) {
+            pending.clear();
+            throw new CancellationException("Chamada cancelada");
+        }
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        pending.offer(chunk);
+        published.addAndGet(chunk.size());
+        if (flushScheduled.compareAndSet(false, true)) {
+            AssyncTimer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    invoker.getProcessorExecutor().execute(flushRunnable);
+                }
+            }, FRAME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        AssyncInvoker<Integer, Object> ai = invoker;
+        return (ai != null && ai.isCancelled()) || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Acrescenta os blocos acumulados à lista de destino. Executado no
+     * ProcessorExecutor; sincronizado para manter a ordem dos blocos quando ele
+     * executa na própria thread que solicita a inclusão
+     */
+    private synchronized void flush() {
+        flushScheduled.set(false);
+        AssyncInvoker<Integer, Object> ai = invoker;
+        if (ai != null && ai.isCancelled()) {
+            pending.clear();
+            return;
+        }
+        if (rollbackPending.get()) {
+            return;
+        }
+        List<E> batch = new ArrayList<E>();
+        List<? extends E> chunk;
+        while ((chunk = pending.poll()) != null) {
+            batch.addAll(chunk);
+        }
+        if (!batch.isEmpty()) {
+            target.addAll(batch);
+            delivered.addAll(batch);
+        }
+    }
+
+    /**
+     * Remove da lista de destino os elementos incluídos pela tentativa anterior
+     * e inclui os blocos já publicados pela nova tentativa. Os elementos são
+     * localizados por identidade a partir do fim da lista, onde foram incluídos
+     */
+    private synchronized void rollback() {
+        Set<E> stale = Collections.newSetFromMap(new IdentityHashMap<E, Boolean>());
+        stale.addAll(delivered);
+        int remaining = delivered.size();
+        delivered.clear();
+        for (int i = target.size() - 1; i >= 0 && remaining > 0; i--) {
+            if (stale.contains(target.get(i))) {
+                target.remove(i);
+                remaining--;
+            }
+        }
+        rollbackPending.set(false);
+        flush();
+    }
+}
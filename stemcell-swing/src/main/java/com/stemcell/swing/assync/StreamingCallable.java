@@ -0,0 +1,34 @@
+package com.stemcell.swing.assync;
+
+/**
+ * Chamada que produz o seu resultado em blocos, publicados no ResultSink à
+ * medida que ficam disponíveis. A chamada deve verificar
+ * {@link ResultSink#isCancelled()} (ou a interrupção da thread) entre os
+ * blocos para parar de produzir quando for cancelada.
+ * Exemplo:
+ * <pre>
+ *    AssyncInvoker.createStreaming(new StreamingCallable&lt;Aluno&gt;() {
+ *        public void call(ResultSink&lt;Aluno&gt; sink) throws Exception {
+ *            for (int pagina = 0; !sink.isCancelled(); pagina++) {
+ *                List&lt;Aluno&gt; alunos = service.buscarAlunos(filtro, pagina);
+ *                if (alunos.isEmpty()) {
+ *                    break;
+ *                }
+ *                sink.publish(alunos);
+ *            }
+ *        }
+ *    }, model.getAlunos()).settingLoadingIconOn(sLabel1).schedule();
+ * </pre>
+ *
+ * @param <E> classe dos elementos produzidos
+ */
+public interface StreamingCallable<E> {
+
+    /**
+     * Produz os resultados, publicando-os em <b>sink</b>
+     *
+     * @param sink destino dos blocos de resultado
+     * @throws Exception
+     */
+    void call(ResultSink<E> sink) throws Exception;
+}
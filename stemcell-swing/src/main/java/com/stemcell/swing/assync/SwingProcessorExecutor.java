@@ -12,4 +12,9 @@ public class SwingProcessorExecutor implements ProcessorExecutor{
         SwingUtilities.invokeLater(processorsRunnable);
     }
 
+    @Override
+    public boolean isProcessorThread() {
+        return SwingUtilities.isEventDispatchThread();
+    }
+
 }
@@ -0,0 +1,49 @@
+package com.stemcell.swing.assync;
+
+import com.stemcell.swing.base.SInternalFrame;
+import java.awt.Component;
+import java.awt.Container;
+import javax.swing.SwingUtilities;
+
+/**
+ * Integração do AssyncInvoker com os componentes Swing. As referências ao AWT
+ * ficam isoladas nesta classe, carregada apenas por chamadas cujos processors
+ * alteram componentes.
+ */
+final class SwingSupport {
+
+    private SwingSupport() {
+    }
+
+    /**
+     * Obtém o escopo apenas na thread de eventos, pelo mesmo motivo de
+     * isInSelectedFrame
+     *
+     * @param target objeto alterado por um processor
+     * @return escopo da janela que contém o componente, ou null se o objeto
+     * não é um componente em uma janela com escopo ou a verificação não é
+     * feita na thread de eventos
+     */
+    static TaskScope scopeOf(Object target) {
+        if (target instanceof Component && SwingUtilities.isEventDispatchThread()) {
+            return TaskScope.of((Component) target);
+        }
+        return null;
+    }
+
+    /**
+     * Verifica a janela selecionada apenas na thread de eventos, a única em que
+     * a árvore de componentes pode ser lida com segurança
+     *
+     * @param target objeto alterado por um processor
+     * @return true se o objeto é um componente da SInternalFrame selecionada e
+     * a verificação é feita na thread de eventos
+     */
+    static boolean isInSelectedFrame(Object target) {
+        if (target instanceof Component && SwingUtilities.isEventDispatchThread()) {
+            Container frame = SwingUtilities.getAncestorOfClass(SInternalFrame.class, (Component) target);
+            return frame != null && ((SInternalFrame) frame).isSelected();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package com.stemcell.swing.assync;
+
+/**
+ * Prioridade de execução de uma chamada assíncrona. Chamadas de maior
+ * prioridade passam à frente das de menor prioridade na disputa pelas threads
+ * do pool compartilhado. Dentro da mesma chave de executor as chamadas mantêm
+ * a ordem FIFO, da qual dependem sequências como salvar e depois recarregar;
+ * apenas as chamadas definidas explicitamente como INTERACTIVE passam à frente
+ * das demais chamadas da chave.
+ * <p>
+ * Para evitar que chamadas de menor prioridade fiquem esperando
+ * indefinidamente, a precedência é limitada pelo envelhecimento: uma chamada só
+ * passa à frente de outra de menor prioridade agendada até
+ * <code>getAgingMillis()</code> (da menor) antes dela.
+ */
+public enum TaskPriority {
+    /**
+     * Chamada aguardada ativamente pelo usuário
+     */
+    INTERACTIVE(0L),
+    /**
+     * Prioridade padrão
+     */
+    NORMAL(1000L),
+    /**
+     * Chamada de fundo, como exportações e pré-carregamentos
+     */
+    BACKGROUND(10000L);
+
+    private final long agingMillis;
+
+    private TaskPriority(long agingMillis) {
+        this.agingMillis = agingMillis;
+    }
+
+    /**
+     * @return atraso relativo às chamadas interativas, em milissegundos, a
+     * partir do qual a chamada deixa de ser ultrapassada
+     */
+    public long getAgingMillis() {
+        return agingMillis;
+    }
+}
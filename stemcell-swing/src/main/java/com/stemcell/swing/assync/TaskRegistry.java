@@ -0,0 +1,348 @@
+package com.stemcell.swing.assync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro dos executores e das tasks agendadas por chave de executor. Usa
+ * apenas estruturas concorrentes, de modo que o agendamento e a finalização de
+ * tasks de chaves diferentes não disputam um monitor comum.
+ */
+final class TaskRegistry {
+    /**
+     * Entradas do registro por chave de executor
+     */
+    private final ConcurrentMap<Object, Entry> entries = new ConcurrentHashMap<Object, Entry>();
+
+    /**
+     * Registra (ou substitui) o executor da chave
+     *
+     * @param executorKey chave do executor
+     * @param executor executor
+     * @return entrada anterior da chave ou null
+     */
+    Entry register(Object executorKey, ExecutorService executor) {
+        Entry entry = new Entry(executorKey, executor);
+        Entry previous = entries.put(executorKey, entry);
+        if (previous != null && previous.getExecutorKey() != executorKey) {
+            // Chave igual em outra instância: as métricas foram publicadas com outro nome
+            MetricsPublisher.unpublish(previous.getExecutorKey());
+        }
+        MetricsPublisher.publish(entry);
+        return previous;
+    }
+
+    /**
+     * Registra o executor da chave somente se ela ainda não possuir um
+     *
+     * @param executorKey chave do executor
+     * @param executor executor
+     * @return entrada efetivamente associada à chave
+     */
+    Entry registerIfAbsent(Object executorKey, ExecutorService executor) {
+        Entry entry = new Entry(executorKey, executor);
+        Entry existing = entries.putIfAbsent(executorKey, entry);
+        if (existing != null) {
+            return existing;
+        }
+        MetricsPublisher.publish(entry);
+        return entry;
+    }
+
+    Entry get(Object executorKey) {
+        return entries.get(executorKey);
+    }
+
+    Entry remove(Object executorKey) {
+        Entry entry = entries.remove(executorKey);
+        if (entry != null) {
+            unpublish(entry.getExecutorKey());
+        }
+        return entry;
+    }
+
+    /**
+     * Remove todas as entradas do registro
+     *
+     * @return entradas removidas
+     */
+    List<Entry> removeAll() {
+        List<Entry> removed = new ArrayList<Entry>();
+        for (Object executorKey : entries.keySet()) {
+            Entry entry = remove(executorKey);
+            if (entry != null) {
+                removed.add(entry);
+            }
+        }
+        return removed;
+    }
+
+    Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    /**
+     * Remove a publicação das métricas da chave, a menos que a mesma instância
+     * de chave já tenha recebido um novo executor
+     */
+    private void unpublish(Object executorKey) {
+        Entry current = entries.get(executorKey);
+        if (current == null || current.getExecutorKey() != executorKey) {
+            MetricsPublisher.unpublish(executorKey);
+        }
+    }
+
+    /**
+     * Executor de uma chave e suas tasks ainda não finalizadas
+     */
+    static final class Entry {
+        private final Object executorKey;
+        private final ExecutorService executor;
+        private final Set<Future> tasks = ConcurrentHashMap.<Future>newKeySet();
+        /**
+         * Tasks de fila limitada aguardando execução, na ordem de agendamento.
+         * Só é mantida para as tasks agendadas com limite; acesso sincronizado
+         * na Entry
+         */
+        private final QueueOrder queued = new QueueOrder();
+        /**
+         * Indica que alguma task de fila limitada já foi registrada
+         */
+        private volatile boolean bounded;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong overflows = new AtomicLong();
+        private final ExecutorMetrics metrics = new ExecutorMetrics(this);
+        /**
+         * Indica que o executor está sendo finalizado de forma ordenada e que
+         * as chamadas que terminarem ainda devem entregar o resultado
+         */
+        private volatile boolean draining;
+
+        Entry(Object executorKey, ExecutorService executor) {
+            this.executorKey = executorKey;
+            this.executor = executor;
+        }
+
+        ExecutorMetrics getMetrics() {
+            return metrics;
+        }
+
+        Object getExecutorKey() {
+            return executorKey;
+        }
+
+        ExecutorService getExecutor() {
+            return executor;
+        }
+
+        /**
+         * @return cópia das tasks ainda não finalizadas
+         */
+        List<Future> getTasks() {
+            return new ArrayList<Future>(tasks);
+        }
+
+        int getPendingCount() {
+            return pending.get();
+        }
+
+        int getRunningCount() {
+            return running.get();
+        }
+
+        void setDraining(boolean draining) {
+            this.draining = draining;
+        }
+
+        /**
+         * @return true se os resultados das chamadas ainda devem ser entregues
+         * aos processors: o executor está ativo ou em finalização ordenada
+         */
+        boolean acceptsResults() {
+            return draining || !executor.isShutdown();
+        }
+
+        long getTimeoutCount() {
+            return timeouts.get();
+        }
+
+        long getRetryCount() {
+            return retries.get();
+        }
+
+        long getOverflowCount() {
+            return overflows.get();
+        }
+
+        /**
+         * Registra uma task enfileirada
+         */
+        void taskQueued(Future task) {
+            metrics.taskQueued(pending.incrementAndGet());
+            tasks.add(task);
+        }
+
+        /**
+         * Registra uma task na fila limitada. Com a fila cheia, escolhe conforme
+         * a política a task que deve ser descartada: a própria task (REJECT e
+         * CALLER_RUNS), a mais antiga ou a mais recente da fila. A task
+         * escolhida continua registrada até ser descartada pelo chamador
+         *
+         * @param task task agendada
+         * @param bound limite da fila
+         * @return task a descartar, ou null se a fila comporta a task
+         */
+        synchronized Future taskQueued(Future task, QueueBound bound) {
+            Future victim = null;
+            if (pending.get() >= bound.getCapacity()) {
+                switch (bound.getPolicy()) {
+                    case DROP_OLDEST:
+                        victim = queued.first();
+                        break;
+                    case DROP_NEWEST:
+                        victim = queued.last();
+                        break;
+                    default:
+                        victim = task;
+                        break;
+                }
+            }
+            bounded = true;
+            taskQueued(task);
+            queued.add(task);
+            return victim;
+        }
+
+        /**
+         * Registra o início de execução de uma task enfileirada
+         */
+        void taskStarted(Future task) {
+            pending.decrementAndGet();
+            running.incrementAndGet();
+            dequeue(task);
+        }
+
+        /**
+         * Registra o fim de execução de uma task iniciada
+         */
+        void taskFinished(Future task) {
+            running.decrementAndGet();
+            tasks.remove(task);
+        }
+
+        /**
+         * Registra uma task removida antes de iniciar (cancelada ou rejeitada)
+         */
+        void taskDiscarded(Future task) {
+            pending.decrementAndGet();
+            tasks.remove(task);
+            dequeue(task);
+        }
+
+        /**
+         * Retira a task da ordem da fila limitada. Chaves sem limite não pagam
+         * a sincronização
+         */
+        private void dequeue(Future task) {
+            if (bounded) {
+                synchronized (this) {
+                    queued.remove(task);
+                }
+            }
+        }
+
+        /**
+         * Registra uma task que excedeu o prazo, na fila ou em execução
+         */
+        void taskTimedOut() {
+            timeouts.incrementAndGet();
+        }
+
+        /**
+         * Registra uma nova tentativa de uma chamada que falhou
+         */
+        void taskRetried() {
+            retries.incrementAndGet();
+        }
+
+        /**
+         * Registra uma task recusada, descartada ou executada pelo chamador
+         * porque a fila da chave atingiu o limite
+         */
+        void taskOverflowed() {
+            overflows.incrementAndGet();
+        }
+    }
+
+    /**
+     * Lista duplamente encadeada indexada pela task: inclusão, remoção e acesso
+     * às pontas em tempo constante. Não é thread-safe
+     */
+    static final class QueueOrder {
+        private final Map<Future, Node> nodes = new HashMap<Future, Node>();
+        private Node head;
+        private Node tail;
+
+        void add(Future task) {
+            Node node = new Node(task);
+            if (nodes.put(task, node) != null) {
+                throw new IllegalStateException("Task já registrada na fila");
+            }
+            node.previous = tail;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Future task) {
+            Node node = nodes.remove(task);
+            if (node == null) {
+                return;
+            }
+            if (node.previous == null) {
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+        }
+
+        Future first() {
+            return head == null ? null : head.task;
+        }
+
+        Future last() {
+            return tail == null ? null : tail.task;
+        }
+
+        private static final class Node {
+            private final Future task;
+            private Node previous;
+            private Node next;
+
+            Node(Future task) {
+                this.task = task;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.stemcell.swing.assync;
+
+import com.stemcell.swing.base.SDialog;
+import com.stemcell.swing.base.SInternalFrame;
+import java.awt.Component;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escopo de chamadas assíncronas ligado ao ciclo de vida de uma janela. Cada
+ * SInternalFrame e SDialog possui o seu escopo, cancelado quando a janela é
+ * fechada: as chamadas pendentes são removidas da fila e os processors de
+ * todas elas são descartados, de modo que nenhuma chamada atualiza o modelo de
+ * uma janela fechada.
+ * <p>
+ * As chamadas são associadas ao escopo com <code>inScope</code> ou
+ * <code>inScopeOf</code>, e então também são interrompidas se estiverem em
+ * execução. As chamadas agendadas na thread de eventos cujos processors
+ * alteram um componente da janela são associadas automaticamente ao escopo,
+ * mas as que já estão em execução terminam normalmente, sem interrupção.
+ */
+public class TaskScope {
+    private final String name;
+    /**
+     * Invokers agendados no escopo e ainda não finalizados
+     */
+    private final Set<AssyncInvoker<?, ?>> invokers = ConcurrentHashMap.<AssyncInvoker<?, ?>>newKeySet();
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    /**
+     * Construtor
+     *
+     * @param name nome do escopo, usado apenas para identificação
+     */
+    public TaskScope(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Obtém o escopo da janela (SInternalFrame ou SDialog) mais próxima que
+     * contém o componente
+     *
+     * @param component componente ou a própria janela
+     * @return escopo da janela ou null se o componente não está em uma janela
+     * com escopo
+     */
+    public static TaskScope of(Component component) {
+        for (Component c = component; c != null; c = c.getParent()) {
+            if (c instanceof SInternalFrame) {
+                return ((SInternalFrame) c).getTaskScope();
+            }
+            if (c instanceof SDialog) {
+                return ((SDialog) c).getTaskScope();
+            }
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return número de chamadas do escopo ainda não finalizadas
+     */
+    public int getActiveCount() {
+        return invokers.size();
+    }
+
+    /**
+     * @return número de chamadas canceladas pelo escopo desde a sua criação
+     */
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    /**
+     * Cancela todas as chamadas do escopo, descartando os seus processors e
+     * interrompendo as de escopo explícito que estão em execução. Chamadas
+     * agendadas depois do cancelamento são executadas normalmente
+     *
+     * @return número de chamadas canceladas
+     */
+    public int cancel() {
+        int count = 0;
+        for (AssyncInvoker<?, ?> invoker : invokers) {
+            if (invokers.remove(invoker)) {
+                invoker.cancelFromScope();
+                count++;
+            }
+        }
+        cancelledCount.addAndGet(count);
+        return count;
+    }
+
+    void add(AssyncInvoker<?, ?> invoker) {
+        invokers.add(invoker);
+    }
+
+    void remove(AssyncInvoker<?, ?> invoker) {
+        invokers.remove(invoker);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskScope[" + name + ", " + invokers.size() + " ativas]";
+    }
+}
@@ -0,0 +1,56 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Perfil de execução para chamadas bloqueantes de I/O, como as chamadas aos
+ * serviços remotos. Em Java 21 ou superior cada tarefa é executada em uma
+ * thread virtual, de modo que centenas de chamadas lentas simultâneas não
+ * ocupam centenas de threads do sistema operacional. Em JVMs anteriores o
+ * perfil usa um pool de threads de plataforma com <b>fallbackPoolSize</b>
+ * threads, como um ExecutorProfile comum.
+ * <p>
+ * As threads virtuais dependem do JAR multi-release gerado pelo perfil Maven
+ * java21; executando a partir das classes compiladas para Java 8 o perfil
+ * sempre usa threads de plataforma.
+ */
+public class VirtualThreadExecutorProfile extends ExecutorProfile {
+
+    /**
+     * Construtor
+     *
+     * @param name nome do perfil
+     * @param fallbackPoolSize número máximo de threads de plataforma quando a
+     * JVM não oferece threads virtuais
+     */
+    public VirtualThreadExecutorProfile(String name, int fallbackPoolSize) {
+        super(name, fallbackPoolSize);
+    }
+
+    /**
+     * @return true se o perfil executa as tarefas em threads virtuais nesta JVM
+     */
+    public static boolean isVirtual() {
+        return VirtualThreads.isAvailable();
+    }
+
+    /**
+     * Cria o executor de threads virtuais, ou o pool de threads de plataforma
+     * se a JVM não oferece threads virtuais. Com threads virtuais não há fila
+     * de espera, portanto a TaskPriority não se aplica entre as chaves
+     *
+     * @return executor do perfil
+     */
+    @Override
+    protected ExecutorService createPool() {
+        return VirtualThreads.newExecutor(this);
+    }
+
+    /**
+     * @return pool de threads de plataforma, usado quando a JVM não oferece
+     * threads virtuais
+     */
+    ExecutorService createPlatformPool() {
+        return super.createPool();
+    }
+}
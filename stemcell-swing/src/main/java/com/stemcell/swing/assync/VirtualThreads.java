@@ -0,0 +1,32 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Acesso às threads virtuais. Esta é a versão Java 8, usada quando a JVM não
+ * oferece threads virtuais; a versão para Java 21 ou superior fica em
+ * src/main/java21 e é carregada do JAR multi-release.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true se a JVM oferece threads virtuais
+     */
+    static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Cria o executor do perfil. Sem threads virtuais, usa o pool de threads
+     * de plataforma do perfil
+     *
+     * @param profile perfil de execução
+     * @return executor
+     */
+    static ExecutorService newExecutor(VirtualThreadExecutorProfile profile) {
+        return profile.createPlatformPool();
+    }
+}
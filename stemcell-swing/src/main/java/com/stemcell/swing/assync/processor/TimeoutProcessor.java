@@ -0,0 +1,18 @@
+package com.stemcell.swing.assync.processor;
+
+import com.stemcell.swing.assync.CallTimeoutException;
+
+/**
+ * Interface para criação de tratador de prazo excedido. Quando a chamada
+ * registra TimeoutProcessor, a CallTimeoutException é entregue apenas a eles,
+ * e não aos tratadores de exceção
+ */
+public interface TimeoutProcessor extends Processor {
+
+    /**
+     * Método chamado quando a chamada assíncrona excede o seu prazo
+     *
+     * @param ex
+     */
+    void timeoutProcess(CallTimeoutException ex);
+}
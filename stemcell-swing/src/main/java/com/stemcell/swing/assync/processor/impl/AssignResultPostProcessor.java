@@ -30,6 +30,13 @@ public class AssignResultPostProcessor implements PostProcessor, PreScheduleProc
         }
     }
 
+    /**
+     * @return objeto cuja propriedade é alterada
+     */
+    public Object getTarget() {
+        return target;
+    }
+
     @Override
     public Object postProccess(Object result) {
         beanProperty.setValue(target, result);
@@ -3,10 +3,12 @@ package com.stemcell.swing.assync.processor.impl;
 import com.stemcell.swing.assync.processor.ExceptionProcessor;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
 
 /**
- * ExceptionProcessor que abafa exeções de timeout (<code>java.net.SocketTimeoutException</code>). Se vier qualquer outra
- * exceção, ela será relançada.
+ * ExceptionProcessor que abafa exeções de timeout (<code>java.net.SocketTimeoutException</code> e
+ * <code>java.util.concurrent.TimeoutException</code>, inclusive o prazo excedido de chamadas com
+ * <code>withTimeout</code>). Se vier qualquer outra exceção, ela será relançada.
  */
 public class IgnoreTimeoutExceptionProcessor implements ExceptionProcessor {
 
@@ -14,7 +16,7 @@ public class IgnoreTimeoutExceptionProcessor implements ExceptionProcessor {
     public void exceptionProcess(Exception ex) {
         Throwable t = ex;
         do {
-            if (t instanceof SocketTimeoutException) {
+            if (t instanceof SocketTimeoutException || t instanceof TimeoutException) {
                 return;
             }
             t = t.getCause();
@@ -32,6 +32,13 @@ public class SwapPropertyProcessor implements PostProcessor, PreScheduleProcesso
         this(target, property, swapValue, VALUE_NOT_SET);
     }
 
+    /**
+     * @return objeto cuja propriedade é alterada
+     */
+    public Object getTarget() {
+        return target;
+    }
+
     @Override
     public Object postProccess(Object result) {
         if (!VALUE_NOT_SET.equals(originalValue) && beanProperty.isReadable(target)) {
@@ -5,13 +5,22 @@ import com.stemcell.common.i18n.I18nManager;
 import com.stemcell.common.i18n.SimpleBundleNameStore;
 import com.stemcell.common.i18n.StandaloneClientLocaleStore;
 import com.stemcell.common.util.ExceptionUtil;
+import com.stemcell.swing.assync.AssyncInvoker;
+import com.stemcell.swing.assync.ShutdownPolicy;
+import com.stemcell.swing.assync.ShutdownReport;
 import com.stemcell.swing.blocking.BlockingOperationListener;
 import com.stemcell.swing.components.DialogMessages;
 import com.stemcell.swing.components.SSplashScreen;
+import java.awt.EventQueue;
 import java.awt.Image;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
@@ -159,6 +168,9 @@ public abstract class BaseApp implements BlockingOperationListener {
 
             // Configura o frame principal
             mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+            // Finaliza as chamadas assíncronas de forma ordenada na saída da aplicação
+            installAssyncShutdown();
             mainFrame.setExtendedState(JFrame.MAXIMIZED_BOTH);
             mainFrame.doAfterInit();
 
@@ -186,6 +198,94 @@ public abstract class BaseApp implements BlockingOperationListener {
         }
     }
 
+    /**
+     * Registra a finalização ordenada dos executores do AssyncInvoker na saída
+     * da aplicação. No fechamento da janela principal a finalização é feita
+     * numa thread própria antes do System.exit, com a thread de eventos livre
+     * para executar os processors das chamadas aguardadas. As demais saídas da
+     * JVM são cobertas por um shutdown hook, no qual os processors que dependem
+     * da thread de eventos podem não executar. As chamadas que não terminarem no
+     * prazo da política são interrompidas e registradas no log
+     */
+    private void installAssyncShutdown() {
+        final ShutdownPolicy policy = getAssyncShutdownPolicy();
+        if (policy == null) {
+            return;
+        }
+        final AtomicBoolean finished = new AtomicBoolean();
+        Runtime.getRuntime().addShutdownHook(new Thread("assync-shutdown") {
+            @Override
+            public void run() {
+                if (finished.compareAndSet(false, true)) {
+                    shutdownAssync(policy);
+                }
+            }
+        });
+
+        if (mainFrame.getDefaultCloseOperation() == JFrame.EXIT_ON_CLOSE) {
+            mainFrame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+            mainFrame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    mainFrame.setVisible(false);
+                    final long deadline = System.nanoTime() + policy.getDeadline(TimeUnit.NANOSECONDS);
+                    new Thread("assync-shutdown-on-close") {
+                        @Override
+                        public void run() {
+                            if (finished.compareAndSet(false, true)) {
+                                shutdownAssync(policy);
+                                flushEventQueue(deadline);
+                            }
+                            System.exit(0);
+                        }
+                    }.start();
+                }
+            });
+        }
+    }
+
+    /**
+     * Aguarda, até o prazo, a execução dos eventos já postados na thread de
+     * eventos, entre eles os processors das chamadas que terminaram no shutdown
+     * @param deadline prazo, em System.nanoTime()
+     */
+    private static void flushEventQueue(long deadline) {
+        final CountDownLatch flushed = new CountDownLatch(1);
+        EventQueue.invokeLater(new Runnable() {
+            @Override public void run() {
+                flushed.countDown();
+            }
+        });
+        try {
+            flushed.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Finaliza os executores do AssyncInvoker e registra o relatório no log
+     * @param policy política de finalização
+     */
+    private static void shutdownAssync(ShutdownPolicy policy) {
+        ShutdownReport report = AssyncInvoker.shutdown(policy);
+        if (report.isCompletedInTime()) {
+            LoggerFactory.getLogger(BaseApp.class).info(report.toString());
+        } else {
+            LoggerFactory.getLogger(BaseApp.class).warn(report.toString());
+        }
+    }
+
+    /**
+     * Política de finalização das chamadas assíncronas na saída da aplicação.
+     * A implementação padrão cancela as chamadas na fila e aguarda as chamadas
+     * em execução por até {@link ShutdownPolicy#DEFAULT_DEADLINE_MILLIS} ms
+     * @return política de finalização, ou null para não finalizar as chamadas
+     */
+    protected ShutdownPolicy getAssyncShutdownPolicy() {
+        return ShutdownPolicy.DEFAULT;
+    }
+
     /**
      * Método invocado antes da criação do frame principal para definir o
      * look and feel do sistema. A implementação padrão aplica o look and
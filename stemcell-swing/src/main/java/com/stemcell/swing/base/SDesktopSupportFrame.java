@@ -252,10 +252,14 @@ public abstract class SDesktopSupportFrame extends JFrame {
     }
 
     /**
-     * Fecha todas as janelas que estão abertas e atualiza o menu Janelas.
+     * Fecha todas as janelas que estão abertas e atualiza o menu Janelas. As
+     * chamadas assíncronas de todas as janelas são canceladas antes de fechá-las.
      */
     public void closeAllInternalFrames() {
         List<SActivator> list = getOpenedFrames().getActivators();
+        for (int i = list.size() - 1; i >= 0; i--) {
+            ((SInternalFrame) list.get(i).getUserComponent()).getTaskScope().cancel();
+        }
         for (int i = list.size() - 1; i >= 0; i--) {
             ((SInternalFrame) list.get(i).getUserComponent()).dispose();
         }
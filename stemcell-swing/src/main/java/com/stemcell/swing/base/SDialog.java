@@ -1,5 +1,6 @@
 package com.stemcell.swing.base;
 
+import com.stemcell.swing.assync.TaskScope;
 import com.stemcell.swing.components.FinalizeOnDisposeDialog;
 import com.stemcell.swing.components.action.GenericAction;
 import java.awt.Dialog;
@@ -8,6 +9,8 @@ import java.awt.Frame;
 import java.awt.GraphicsConfiguration;
 import java.awt.Window;
 import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import javax.swing.Action;
 import javax.swing.JComponent;
 import javax.swing.KeyStroke;
@@ -22,6 +25,11 @@ public class SDialog extends FinalizeOnDisposeDialog {
      * Action de dispose padrao do diálogo
      */
     private Action disposeAction = new GenericAction(null, "", "dispose", this);
+    /**
+     * Escopo das chamadas assíncronas do diálogo, criado sob demanda e
+     * cancelado ao fechá-lo
+     */
+    private TaskScope taskScope;
 
 /**
      * @param owner The owner Dialog from which the dialog is displayed or null if this dialog has no owner
@@ -172,6 +180,25 @@ public class SDialog extends FinalizeOnDisposeDialog {
         }
     }
 
+    /**
+     * Obtém o escopo das chamadas assíncronas do diálogo. As chamadas do escopo
+     * são canceladas quando o diálogo é fechado
+     * @return escopo do diálogo
+     */
+    public synchronized TaskScope getTaskScope() {
+        if (taskScope == null) {
+            final TaskScope scope = new TaskScope(getClass().getName());
+            addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    scope.cancel();
+                }
+            });
+            taskScope = scope;
+        }
+        return taskScope;
+    }
+
     /**
      * Getter de disposeAction
      * @return disposeAction
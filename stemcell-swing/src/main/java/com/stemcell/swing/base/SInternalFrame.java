@@ -1,7 +1,10 @@
 package com.stemcell.swing.base;
 
+import com.stemcell.swing.assync.TaskScope;
 import javax.swing.Icon;
 import javax.swing.JInternalFrame;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
 
 
 /**
@@ -9,6 +12,10 @@ import javax.swing.JInternalFrame;
  */
 public abstract class SInternalFrame extends JInternalFrame {
     private static Icon defaultIcon = null;
+    /**
+     * Escopo das chamadas assíncronas da frame, cancelado ao fechá-la
+     */
+    private final TaskScope taskScope = new TaskScope(getClass().getName());
 
     /**
      * Construtor padrão
@@ -19,6 +26,21 @@ public abstract class SInternalFrame extends JInternalFrame {
         setResizable(true);
         setMaximizable(true);
         setIconifiable(true);
+        addInternalFrameListener(new InternalFrameAdapter() {
+            @Override
+            public void internalFrameClosed(InternalFrameEvent e) {
+                taskScope.cancel();
+            }
+        });
+    }
+
+    /**
+     * Obtém o escopo das chamadas assíncronas da frame. As chamadas do escopo
+     * são canceladas quando a frame é fechada
+     * @return escopo da frame
+     */
+    public TaskScope getTaskScope() {
+        return taskScope;
     }
     
     /**
@@ -0,0 +1,19 @@
+package com.stemcell.swing.blocking;
+
+/**
+ * Estratégia usada pelo BlockingProxy para isolar os argumentos de uma chamada
+ * local do serviço, simulando a cópia feita por uma chamada remota: o serviço
+ * recebe cópias, e alterações feitas por ele não chegam aos objetos do cliente.
+ *
+ * @see BlockingProxy#setArgumentIsolation(ArgumentIsolation)
+ */
+public interface ArgumentIsolation {
+    /**
+     * Substitui cada argumento por uma cópia isolada
+     *
+     * @param args argumentos da chamada
+     * @throws Exception se algum argumento não pode ser copiado, por exemplo por
+     * não ser serializável
+     */
+    void isolate(Object[] args) throws Exception;
+}
@@ -6,16 +6,24 @@ import com.stemcell.swing.base.BaseApp;
 import com.stemcell.swing.components.dialog.BlockingDialog;
 import java.awt.EventQueue;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
 import org.apache.commons.codec.binary.Base64;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -32,11 +40,21 @@ import org.slf4j.LoggerFactory;
  */
 public final class BlockingProxy {
     public static final String OVERRIDE_ARGUMENT_SERIALIZATION_PATTERN_KEY = "br.com.petrobras.fcorp.swing.blocking.BlockingProxy.overrideArgumentSerializationPatternKey";
+    /**
+     * Propriedade de sistema que ativa o modo de verificação, no qual os
+     * argumentos são isolados por serialização em vez da cópia profunda
+     */
+    public static final String VERIFY_ARGUMENT_SERIALIZATION_KEY = "br.com.petrobras.fcorp.swing.blocking.BlockingProxy.verifyArgumentSerialization";
     private static final long serialVersionUID = 1L;
     /**
      * Diálogo de bloqueio exibido enquanto a operação é executada
      */
     private static BlockingDialog dialog;
+    /**
+     * Estratégia de isolamento dos argumentos quando a serialização é forçada
+     */
+    private static volatile ArgumentIsolation argumentIsolation = Boolean.getBoolean(VERIFY_ARGUMENT_SERIALIZATION_KEY)
+            ? new SerializationArgumentIsolation() : new DeepCopyArgumentIsolation();
 
     /**
      * Constructor padrão
@@ -84,6 +102,28 @@ public final class BlockingProxy {
         return corr;
     }
 
+    /**
+     * Define a estratégia de isolamento dos argumentos dos proxies criados com
+     * forceArgumentSerialization. O padrão é a cópia profunda
+     * (DeepCopyArgumentIsolation), ou a serialização
+     * (SerializationArgumentIsolation) com a propriedade de sistema
+     * {@link #VERIFY_ARGUMENT_SERIALIZATION_KEY}
+     * @param isolation Estratégia de isolamento
+     */
+    public static void setArgumentIsolation(ArgumentIsolation isolation) {
+        if (isolation == null) {
+            throw new IllegalArgumentException("isolation não pode ser null");
+        }
+        argumentIsolation = isolation;
+    }
+
+    /**
+     * @return Estratégia de isolamento dos argumentos
+     */
+    public static ArgumentIsolation getArgumentIsolation() {
+        return argumentIsolation;
+    }
+
     /**
      * Exibe um diálogo de bloqueio enquanto invoca o método <i>method</i> no
      * objeto <i>target</i> usando os parâmetros <i>args</i>
@@ -96,13 +136,25 @@ public final class BlockingProxy {
      * @throws InterruptedException InterruptedException
      * @throws ExecutionException ExecutionException
      */
-    public static Object blockingInvoke(String msg, Integer progress, Object target, Method method, Object[] args) throws InterruptedException, ExecutionException  {
+    public static Object blockingInvoke(String msg, Integer progress, final Object target, final Method method, final Object[] args) throws InterruptedException, ExecutionException  {
         if (target == null || method == null) {
             throw new IllegalArgumentException("Target e method não podem ser null");
         }
 
+        return blockingInvoke(msg, progress, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return method.invoke(target, args);
+            }
+        });
+    }
+
+    /**
+     * Exibe um diálogo de bloqueio enquanto executa a chamada
+     */
+    private static Object blockingInvoke(String msg, Integer progress, Callable<?> call) throws InterruptedException, ExecutionException {
         getDialog().getLabelMensagem().setText(msg);
-        
+
         if (progress == null) {
             getDialog().getProgress().setIndeterminate(true);
         } else {
@@ -115,8 +167,8 @@ public final class BlockingProxy {
             getDialog().setModal(true);
             getDialog().setLocationRelativeTo(BaseApp.getApplication().getMainFrame());
         }
-        
-        return getDialog().blockingInvoke(target, method, args);
+
+        return getDialog().blockingInvoke(call);
     }
 
     /**
@@ -170,6 +222,7 @@ public final class BlockingProxy {
      * chamada ao serviço
      */
     private static class BlockingInvocationHandler implements InvocationHandler {
+        private static final Logger LOGGER = LoggerFactory.getLogger(BlockingInvocationHandler.class);
         /**
          * Objeto destino das chamadas
          */
@@ -202,17 +255,25 @@ public final class BlockingProxy {
          */
         public Object invoke(Object proxy, final Method method, final Object[] args) throws Throwable {
             boolean assync = !EventQueue.isDispatchThread();
-            LoggerFactory.getLogger(getClass()).info(String.format("Invoking: %s %s", method.getName(), assync?"(assync)":""));
+            MethodDescriptor descriptor = MethodDescriptor.of(method);
+            LOGGER.info(assync ? descriptor.invokingAssyncMessage : descriptor.invokingMessage);
             Object result = null;
-            String description = getDescription(method);
+            MethodMessages messages = assync ? null : descriptor.getMessages();
 
             // Notifica o operation listener
             if (!assync) {
-                operationListener.processStart(I18nManager.getString("fcorp.swing.base.processingObject", description));
+                operationListener.processStart(messages.processing);
             }
 
             Throwable handledThrowable = null;
             boolean tryAgain = true;
+            final boolean profiled = PayloadProfiler.isEnabled();
+
+            // Na thread de eventos os argumentos e o resultado são medidos pela
+            // thread do diálogo, para não serializá-los fora dele
+            if (profiled && assync) {
+                PayloadProfiler.recordArguments(method, args);
+            }
 
             while (tryAgain) {
                 try {
@@ -220,25 +281,40 @@ public final class BlockingProxy {
                     tryAgain = false;
                     
                     // Força a serizalização dos argumentos para simular ambiente servidor rodando local
-                    if (forceArgumentSerialization && args != null && !overrideArgumentSerialization(method)) {
-                        copyArgumentsThroughSerialization(args);
+                    if (forceArgumentSerialization && args != null && !descriptor.overrideArgumentSerialization) {
+                        argumentIsolation.isolate(args);
                     }
 
                     if (assync) {
-                        result = method.invoke(target, args);
+                        result = descriptor.invoke(target, args);
+                        if (profiled) {
+                            PayloadProfiler.recordResult(method, result);
+                        }
                     } else {
-                        result = blockingInvoke(description, null, target, method, args);
+                        result = blockingInvoke(messages.description, null, new Callable<Object>() {
+                            @Override
+                            public Object call() throws Exception {
+                                if (profiled) {
+                                    PayloadProfiler.recordArguments(method, args);
+                                }
+                                Object value = method.invoke(target, args);
+                                if (profiled) {
+                                    PayloadProfiler.recordResult(method, value);
+                                }
+                                return value;
+                            }
+                        });
                     }
 
                     if (!assync) {
-                        operationListener.processSuccess(I18nManager.getString("fcorp.swing.base.processingSuccess"), getSuccessMessage(method));
+                        operationListener.processSuccess(messages.success, messages.successMessage);
                     }
                 } catch (Exception e) { // SUPPRESS CHECKSTYLE Illegal Catch - Barreira de excecao
                     // O método lançou uma exceção. Tentamos descobrir o problema
                     handledThrowable = ExceptionUtil.cleanException(e);
 
                     if (!assync) {
-                        operationListener.processFailure(I18nManager.getString("fcorp.swing.base.processingError", description), handledThrowable);
+                        operationListener.processFailure(messages.failure, handledThrowable);
                     }
 
                     //if (handledThrowable instanceof InvalidOperationException) {
@@ -253,34 +329,143 @@ public final class BlockingProxy {
 
             return result;
         }
+    }
+
+    /**
+     * Descarta os metadados de método mantidos pelos proxies, como o padrão de
+     * {@link #OVERRIDE_ARGUMENT_SERIALIZATION_PATTERN_KEY}, que é lido uma única
+     * vez por método. As mensagens são renovadas automaticamente na troca de locale
+     */
+    public static void clearMethodCache() {
+        MethodDescriptor.CACHE.clear();
+    }
+
+    /**
+     * Metadados de um método do serviço, resolvidos na primeira chamada e
+     * reaproveitados nas seguintes
+     */
+    private static final class MethodDescriptor {
+        private static final ConcurrentMap<Method, MethodDescriptor> CACHE = new ConcurrentHashMap<Method, MethodDescriptor>();
+        /**
+         * Último padrão compilado de OVERRIDE_ARGUMENT_SERIALIZATION_PATTERN_KEY
+         */
+        private static volatile Pattern overridePattern;
+
+        private final Method method;
+        private final String invokingMessage;
+        private final String invokingAssyncMessage;
+        private final boolean overrideArgumentSerialization;
+        /**
+         * Invoca o método com a assinatura (Object target, Object[] args)Object.
+         * Criado na primeira chamada assíncrona, já que as chamadas na thread de
+         * eventos passam pelo BlockingDialog
+         */
+        private volatile MethodHandle invoker;
+        /**
+         * Mensagens do locale da última chamada síncrona
+         */
+        private volatile MethodMessages messages;
+
+        private MethodDescriptor(Method method) {
+            this.method = method;
+            this.invokingMessage = "Invoking: " + method.getName() + " ";
+            this.invokingAssyncMessage = invokingMessage + "(assync)";
+            Pattern pattern = getOverridePattern();
+            this.overrideArgumentSerialization = pattern != null && pattern.matcher(method.getName()).matches();
+        }
+
+        static MethodDescriptor of(Method method) {
+            MethodDescriptor descriptor = CACHE.get(method);
+            if (descriptor == null) {
+                MethodDescriptor created = new MethodDescriptor(method);
+                descriptor = CACHE.putIfAbsent(method, created);
+                if (descriptor == null) {
+                    descriptor = created;
+                }
+            }
+            return descriptor;
+        }
+
+        private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                // Interface de serviço não pública: o handle herda o acesso liberado
+                method.setAccessible(true);
+            }
+            return MethodHandles.publicLookup().unreflect(method);
+        }
+
+        private static Pattern getOverridePattern() {
+            String regex = System.getProperty(OVERRIDE_ARGUMENT_SERIALIZATION_PATTERN_KEY);
+            Pattern pattern = overridePattern;
+            if (regex == null) {
+                return null;
+            }
+            if (pattern == null || !pattern.pattern().equals(regex)) {
+                pattern = Pattern.compile(regex);
+                overridePattern = pattern;
+            }
+            return pattern;
+        }
+
+        /**
+         * Invoca o método no objeto destino com a mesma semântica do
+         * Method.invoke: qualquer exceção é encapsulada numa InvocationTargetException
+         */
+        Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+            MethodHandle handle = getInvoker();
+            try {
+                return (Object) handle.invokeExact(target, args);
+            } catch (Throwable t) { // SUPPRESS CHECKSTYLE Illegal Catch - Repassada como no Method.invoke
+                throw new InvocationTargetException(t);
+            }
+        }
+
+        /**
+         * @return handle de invocação do método, criado na primeira chamada
+         * @throws IllegalAccessException se o método não é acessível
+         */
+        private MethodHandle getInvoker() throws IllegalAccessException {
+            MethodHandle current = invoker;
+            if (current == null) {
+                MethodHandle handle = unreflect(method);
+                current = handle.asType(handle.type().generic()).asSpreader(Object[].class, method.getParameterTypes().length);
+                invoker = current;
+            }
+            return current;
+        }
 
         /**
-         * Copia os argumentos do array informado atraves de um processo de serializacao
-         * @param args argumentos que serao serializados
-         * @throws Exception qualquer tipo de excacao que ocorra nesse processo
+         * @return mensagens do método no locale atual, resolvidas de novo apenas na troca de locale
          */
-        private void copyArgumentsThroughSerialization(final Object[] args) throws Exception {
-            final float KBYTE = 1024f;
-            int bufferSize = 0;
-            int i = 0;
-            ByteArrayOutputStream serializationBuffer = null;
-            ObjectOutputStream objectOutputStream = null;
-            
-            for (i = 0; i < args.length; i++) {
-                bufferSize = 0;
-                serializationBuffer = new ByteArrayOutputStream();
-                objectOutputStream = new ObjectOutputStream(serializationBuffer);
-                objectOutputStream.writeObject(args[i]);
-                objectOutputStream.close();
-                bufferSize += serializationBuffer.size();
-                args[i] = new ObjectInputStream(new ByteArrayInputStream(serializationBuffer.toByteArray())).readObject();
+        MethodMessages getMessages() {
+            Locale locale = I18nManager.getCurrentLocaleStore().getLocale();
+            MethodMessages current = messages;
+            if (current == null || !current.locale.equals(locale)) {
+                current = new MethodMessages(locale, method);
+                messages = current;
             }
-            LoggerFactory.getLogger(getClass()).info(String.format("Serialized parameters size: %.3f kb\n", bufferSize / KBYTE));
+            return current;
         }
+    }
+
+    /**
+     * Mensagens internacionalizadas de um método num locale
+     */
+    private static final class MethodMessages {
+        private final Locale locale;
+        private final String description;
+        private final String processing;
+        private final String success;
+        private final String successMessage;
+        private final String failure;
 
-        private boolean overrideArgumentSerialization(Method method) {
-            String pattern = System.getProperty(OVERRIDE_ARGUMENT_SERIALIZATION_PATTERN_KEY);
-            return pattern != null && method.getName().matches(pattern);
+        MethodMessages(Locale locale, Method method) {
+            this.locale = locale;
+            this.description = getDescription(method);
+            this.processing = I18nManager.getString("fcorp.swing.base.processingObject", description);
+            this.success = I18nManager.getString("fcorp.swing.base.processingSuccess");
+            this.successMessage = getSuccessMessage(method);
+            this.failure = I18nManager.getString("fcorp.swing.base.processingError", description);
         }
     }
 
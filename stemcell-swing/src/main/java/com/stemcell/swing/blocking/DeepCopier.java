@@ -0,0 +1,496 @@
+package com.stemcell.swing.blocking;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import org.springframework.objenesis.SpringObjenesis;
+
+/**
+ * Cópia profunda de grafos de objetos serializáveis, equivalente a uma ida e
+ * volta por serialização, porém sem streams nem buffers. O plano de cópia de
+ * cada classe (campos a copiar, acessados por MethodHandle, e forma de
+ * instanciação) é calculado uma única vez. Objetos imutáveis (String, números,
+ * enums, java.time) são compartilhados e referências repetidas, inclusive
+ * ciclos, são preservadas dentro da mesma instância do copiador.
+ * <p>
+ * As regras da serialização são respeitadas: campos transient não são copiados
+ * e objetos não serializáveis causam NotSerializableException. Objetos com
+ * serialização customizada (writeObject, readResolve, Externalizable, etc.)
+ * só podem ser copiados pela própria serialização: quando o grafo contém algum
+ * deles, o grafo inteiro passado a {@link #copy(Object)} é copiado por
+ * serialização num único stream, preservando as referências entre esses
+ * objetos e o restante do grafo. Cada instância representa uma sessão de cópia e não deve ser compartilhada
+ * entre threads.
+ */
+public final class DeepCopier {
+    private static final SpringObjenesis objenesis = new SpringObjenesis();
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class, Locale.class, URI.class,
+            Class.class, Collections.emptyList().getClass(), Collections.emptySet().getClass(),
+            Collections.emptyMap().getClass()));
+
+    private static final ClassValue<CopyPlan> plans = new ClassValue<CopyPlan>() {
+        @Override
+        protected CopyPlan computeValue(Class<?> type) {
+            return CopyPlan.of(type);
+        }
+    };
+
+    /**
+     * Cópias já feitas nesta sessão, por identidade do original
+     */
+    private final Map<Object, Object> copies = new IdentityHashMap<Object, Object>();
+    /**
+     * Originais registrados pela chamada de {@link #copy(Object)} em andamento,
+     * descartados se o grafo precisar ser copiado por serialização
+     */
+    private final List<Object> registered = new ArrayList<Object>();
+    /**
+     * Indica uma chamada de {@link #copy(Object)} em andamento
+     */
+    private boolean copying;
+
+    /**
+     * Copia um grafo de objetos com uma sessão própria
+     *
+     * @param original objeto original
+     * @return cópia profunda do objeto
+     * @throws IOException se algum objeto do grafo não é serializável
+     * @throws ClassNotFoundException se a cópia por serialização de algum objeto falhar
+     */
+    public static Object deepCopy(Object original) throws IOException, ClassNotFoundException {
+        return new DeepCopier().copy(original);
+    }
+
+    /**
+     * Copia um grafo de objetos. Objetos já copiados por esta instância são
+     * reaproveitados, preservando as referências compartilhadas entre as
+     * chamadas. Um grafo copiado por serialização não compartilha referências
+     * com as cópias anteriores da sessão
+     *
+     * @param original objeto original
+     * @return cópia profunda do objeto
+     * @throws IOException se algum objeto do grafo não é serializável
+     * @throws ClassNotFoundException se a cópia por serialização de algum objeto falhar
+     */
+    public Object copy(Object original) throws IOException, ClassNotFoundException {
+        if (original == null) {
+            return null;
+        }
+        Object copy = copies.get(original);
+        if (copy != null) {
+            return copy;
+        }
+        if (copying) {
+            return plans.get(original.getClass()).copy(original, this);
+        }
+        copying = true;
+        try {
+            return plans.get(original.getClass()).copy(original, this);
+        } catch (SerializationRequired e) {
+            for (Object partial : registered) {
+                copies.remove(partial);
+            }
+            return register(original, serializedCopy(original));
+        } finally {
+            copying = false;
+            registered.clear();
+        }
+    }
+
+    /**
+     * Registra a cópia antes de copiar o conteúdo do original, para que
+     * referências cíclicas apontem para ela
+     */
+    private <C> C register(Object original, C copy) {
+        copies.put(original, copy);
+        registered.add(original);
+        return copy;
+    }
+
+    /**
+     * Copia o grafo por serialização, num único stream
+     */
+    private static Object serializedCopy(Object original) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(buffer);
+        out.writeObject(original);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+        return in.readObject();
+    }
+
+    /**
+     * Sinaliza que o grafo contém um objeto que só pode ser copiado pela
+     * serialização. Sem stack trace, pois é sempre tratada em copy
+     */
+    private static final class SerializationRequired extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final SerializationRequired INSTANCE = new SerializationRequired();
+
+        private SerializationRequired() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Forma de copiar as instâncias de uma classe
+     */
+    private abstract static class CopyPlan {
+
+        abstract Object copy(Object original, DeepCopier session) throws IOException, ClassNotFoundException;
+
+        static CopyPlan of(Class<?> type) {
+            if (isImmutable(type)) {
+                return SharedPlan.INSTANCE;
+            } else if (type.isArray()) {
+                return type.getComponentType().isPrimitive() ? PrimitiveArrayPlan.INSTANCE : ObjectArrayPlan.INSTANCE;
+            } else if (!Serializable.class.isAssignableFrom(type)) {
+                return new NotSerializablePlan(type);
+            } else if (type == Date.class) {
+                return DatePlan.INSTANCE;
+            } else if (CollectionPlan.supports(type)) {
+                return new CollectionPlan(type);
+            } else if (MapPlan.supports(type)) {
+                return new MapPlan(type);
+            }
+            CopyPlan fields = FieldsPlan.of(type);
+            return (fields == null) ? SerializationPlan.INSTANCE : fields;
+        }
+
+        private static boolean isImmutable(Class<?> type) {
+            return IMMUTABLE_TYPES.contains(type) || Enum.class.isAssignableFrom(type)
+                    || type.getName().startsWith("java.time.");
+        }
+    }
+
+    /**
+     * Objetos imutáveis: a cópia é o próprio objeto
+     */
+    private static final class SharedPlan extends CopyPlan {
+        static final SharedPlan INSTANCE = new SharedPlan();
+
+        @Override
+        Object copy(Object original, DeepCopier session) {
+            return original;
+        }
+    }
+
+    private static final class NotSerializablePlan extends CopyPlan {
+        private final String className;
+
+        NotSerializablePlan(Class<?> type) {
+            this.className = type.getName();
+        }
+
+        @Override
+        Object copy(Object original, DeepCopier session) throws NotSerializableException {
+            throw new NotSerializableException(className);
+        }
+    }
+
+    private static final class PrimitiveArrayPlan extends CopyPlan {
+        static final PrimitiveArrayPlan INSTANCE = new PrimitiveArrayPlan();
+
+        @Override
+        Object copy(Object original, DeepCopier session) {
+            int length = Array.getLength(original);
+            Object copy = Array.newInstance(original.getClass().getComponentType(), length);
+            System.arraycopy(original, 0, copy, 0, length);
+            return session.register(original, copy);
+        }
+    }
+
+    private static final class ObjectArrayPlan extends CopyPlan {
+        static final ObjectArrayPlan INSTANCE = new ObjectArrayPlan();
+
+        @Override
+        Object copy(Object original, DeepCopier session) throws IOException, ClassNotFoundException {
+            Object[] source = (Object[]) original;
+            Object[] copy = session.register(original,
+                    (Object[]) Array.newInstance(original.getClass().getComponentType(), source.length));
+            for (int i = 0; i < source.length; i++) {
+                copy[i] = session.copy(source[i]);
+            }
+            return copy;
+        }
+    }
+
+    private static final class DatePlan extends CopyPlan {
+        static final DatePlan INSTANCE = new DatePlan();
+
+        @Override
+        Object copy(Object original, DeepCopier session) {
+            return session.register(original, new Date(((Date) original).getTime()));
+        }
+    }
+
+    /**
+     * Coleções do java.util, recriadas pela API de coleções pois a sua
+     * serialização é customizada
+     */
+    private static final class CollectionPlan extends CopyPlan {
+        private static final Set<Class<?>> TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+                ArrayList.class, LinkedList.class, ArrayDeque.class, HashSet.class, LinkedHashSet.class, TreeSet.class));
+
+        private final MethodHandle constructor;
+
+        CollectionPlan(Class<?> type) {
+            this.constructor = (type == TreeSet.class) ? null : noArgConstructor(type);
+        }
+
+        static boolean supports(Class<?> type) {
+            return TYPES.contains(type);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object copy(Object original, DeepCopier session) throws IOException, ClassNotFoundException {
+            Collection<Object> copy;
+            if (constructor == null) {
+                Comparator<Object> comparator = (Comparator<Object>) session.copy(((TreeSet<?>) original).comparator());
+                copy = new TreeSet<Object>(comparator);
+            } else {
+                copy = (Collection<Object>) newInstance(constructor);
+            }
+            session.register(original, copy);
+            for (Object element : (Collection<?>) original) {
+                copy.add(session.copy(element));
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Mapas do java.util, recriados pela API de mapas pois a sua serialização
+     * é customizada
+     */
+    private static final class MapPlan extends CopyPlan {
+        private static final Set<Class<?>> TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+                HashMap.class, LinkedHashMap.class, TreeMap.class));
+
+        private final MethodHandle constructor;
+
+        MapPlan(Class<?> type) {
+            this.constructor = (type == TreeMap.class) ? null : noArgConstructor(type);
+        }
+
+        static boolean supports(Class<?> type) {
+            return TYPES.contains(type);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object copy(Object original, DeepCopier session) throws IOException, ClassNotFoundException {
+            Map<Object, Object> copy;
+            if (constructor == null) {
+                Comparator<Object> comparator = (Comparator<Object>) session.copy(((TreeMap<?, ?>) original).comparator());
+                copy = new TreeMap<Object, Object>(comparator);
+            } else {
+                copy = (Map<Object, Object>) newInstance(constructor);
+            }
+            session.register(original, copy);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) original).entrySet()) {
+                copy.put(session.copy(entry.getKey()), session.copy(entry.getValue()));
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Classes serializáveis sem serialização customizada: os campos não
+     * transient são copiados um a um
+     */
+    private static final class FieldsPlan extends CopyPlan {
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final Class<?> type;
+        private final MethodHandle[] getters;
+        private final MethodHandle[] setters;
+        /**
+         * Indica os campos de tipo primitivo, copiados sem recursão
+         */
+        private final boolean[] primitives;
+
+        private FieldsPlan(Class<?> type, List<Field> fields) throws IllegalAccessException {
+            this.type = type;
+            this.getters = new MethodHandle[fields.size()];
+            this.setters = new MethodHandle[fields.size()];
+            this.primitives = new boolean[fields.size()];
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                field.setAccessible(true);
+                getters[i] = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                setters[i] = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+                primitives[i] = field.getType().isPrimitive();
+            }
+        }
+
+        /**
+         * Calcula o plano de cópia por campos da classe
+         *
+         * @param type classe serializável
+         * @return plano, ou null se a classe deve ser copiada por serialização
+         */
+        static FieldsPlan of(Class<?> type) {
+            if (Externalizable.class.isAssignableFrom(type) || hasReplaceMethods(type)) {
+                return null;
+            }
+            List<Field> fields = new ArrayList<Field>();
+            Class<?> c = type;
+            for (; Serializable.class.isAssignableFrom(c); c = c.getSuperclass()) {
+                if (hasCustomSerialization(c)) {
+                    return null;
+                }
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                        fields.add(field);
+                    }
+                }
+            }
+            // A serialização reinicia os campos da superclasse não serializável
+            // pelo seu construtor, o que só equivale à cópia direta para Object
+            if (c != Object.class) {
+                return null;
+            }
+            try {
+                return new FieldsPlan(type, fields);
+            } catch (IllegalAccessException e) {
+                return null;
+            } catch (RuntimeException e) {
+                // Campos inacessíveis, como os de classes encapsuladas do JDK
+                return null;
+            }
+        }
+
+        private static boolean hasCustomSerialization(Class<?> c) {
+            for (Method method : c.getDeclaredMethods()) {
+                String name = method.getName();
+                if (Modifier.isPrivate(method.getModifiers()) && !Modifier.isStatic(method.getModifiers())
+                        && (name.equals("writeObject") || name.equals("readObject") || name.equals("readObjectNoData"))) {
+                    return true;
+                }
+            }
+            for (Field field : c.getDeclaredFields()) {
+                if (field.getName().equals("serialPersistentFields") && Modifier.isStatic(field.getModifiers())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasReplaceMethods(Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Method method : c.getDeclaredMethods()) {
+                    if (method.getParameterTypes().length == 0 && !Modifier.isStatic(method.getModifiers())
+                            && (method.getName().equals("writeReplace") || method.getName().equals("readResolve"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Object copy(Object original, DeepCopier session) throws IOException, ClassNotFoundException {
+            Object copy = session.register(original, objenesis.newInstance(type));
+            try {
+                for (int i = 0; i < getters.length; i++) {
+                    Object value = (Object) getters[i].invokeExact(original);
+                    if (!primitives[i]) {
+                        value = session.copy(value);
+                    }
+                    setters[i].invokeExact(copy, value);
+                }
+            } catch (IOException e) {
+                throw e;
+            } catch (ClassNotFoundException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException("Falha ao copiar " + type.getName(), t);
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Classes com serialização customizada: a serialização do objeto pode
+     * referenciar qualquer parte do grafo, que por isso é copiado inteiro pela
+     * serialização
+     */
+    private static final class SerializationPlan extends CopyPlan {
+        static final SerializationPlan INSTANCE = new SerializationPlan();
+
+        @Override
+        Object copy(Object original, DeepCopier session) {
+            throw SerializationRequired.INSTANCE;
+        }
+    }
+
+    private static MethodHandle noArgConstructor(Class<?> type) {
+        try {
+            return MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object newInstance(MethodHandle constructor) {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.stemcell.swing.blocking;
+
+/**
+ * Isola os argumentos com o DeepCopier, sem streams de serialização. O array
+ * de argumentos é copiado como um único grafo, de modo que objetos
+ * compartilhados entre argumentos continuam compartilhados nas cópias, como em
+ * uma chamada remota que serializa todos os argumentos no mesmo stream.
+ */
+public class DeepCopyArgumentIsolation implements ArgumentIsolation {
+
+    @Override
+    public void isolate(Object[] args) throws Exception {
+        Object[] copy = (Object[]) DeepCopier.deepCopy(args);
+        System.arraycopy(copy, 0, args, 0, args.length);
+    }
+}
@@ -0,0 +1,107 @@
+package com.stemcell.swing.blocking;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mede o tamanho serializado de um grafo de objetos sem armazenar os bytes
+ */
+final class PayloadMeter {
+
+    private PayloadMeter() {
+    }
+
+    /**
+     * @param graph objeto
+     * @return tamanho exato do objeto serializado, em bytes
+     * @throws IOException se o grafo não é serializável
+     */
+    static long measure(Object graph) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(counter);
+        out.writeObject(graph);
+        out.close();
+        return counter.count;
+    }
+
+    /**
+     * Distribui os bytes serializados do grafo entre as classes dos seus
+     * objetos. Cada objeto recebe os bytes escritos desde o seu início até o
+     * início do próximo objeto: os seus campos primitivos, o descritor da
+     * classe na primeira ocorrência e os cabeçalhos. O resultado é aproximado,
+     * pois esvaziar o buffer a cada objeto acrescenta cabeçalhos de bloco
+     *
+     * @param graph objeto
+     * @return bytes e número de instâncias por classe
+     * @throws IOException se o grafo não é serializável
+     */
+    static Map<Class<?>, long[]> breakdown(Object graph) throws IOException {
+        BreakdownOutputStream out = new BreakdownOutputStream(new CountingOutputStream());
+        out.writeObject(graph);
+        out.close();
+        return out.finish();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private static final class BreakdownOutputStream extends ObjectOutputStream {
+        private final CountingOutputStream counter;
+        /**
+         * Bytes ([0]) e instâncias ([1]) por classe
+         */
+        private final Map<Class<?>, long[]> classes = new HashMap<Class<?>, long[]>();
+        private Class<?> current;
+        private long currentStart;
+
+        BreakdownOutputStream(CountingOutputStream counter) throws IOException {
+            super(counter);
+            this.counter = counter;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) throws IOException {
+            attribute();
+            current = obj.getClass();
+            currentStart = counter.count;
+            long[] entry = classes.get(current);
+            if (entry == null) {
+                entry = new long[2];
+                classes.put(current, entry);
+            }
+            entry[1]++;
+            return obj;
+        }
+
+        /**
+         * Atribui à classe do objeto corrente os bytes escritos desde o seu início
+         */
+        private void attribute() throws IOException {
+            flush();
+            if (current != null) {
+                classes.get(current)[0] += counter.count - currentStart;
+            }
+        }
+
+        Map<Class<?>, long[]> finish() throws IOException {
+            attribute();
+            current = null;
+            return classes;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.stemcell.swing.blocking;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Perfil do tamanho serializado dos argumentos e retornos das chamadas feitas
+ * através do BlockingProxy, por método do serviço. Para as chamadas acima do
+ * limite de detalhamento, os bytes são distribuídos também pelas classes do
+ * grafo de objetos, apontando os tipos que mais pesam no tráfego.
+ * <p>
+ * Desabilitado por padrão, pois cada chamada perfilada serializa os argumentos
+ * e o retorno mais uma vez. Pode ser habilitado pela propriedade de sistema
+ * {@link #ENABLED_KEY} ou pelo DebugDialog.
+ */
+public final class PayloadProfiler {
+    /**
+     * Propriedade de sistema que habilita o perfil desde o início da aplicação
+     */
+    public static final String ENABLED_KEY = "br.com.petrobras.fcorp.swing.blocking.PayloadProfiler.enabled";
+    /**
+     * Tamanho padrão a partir do qual o payload é detalhado por classe
+     */
+    public static final long DEFAULT_BREAKDOWN_THRESHOLD = 32 * 1024;
+    /**
+     * Número de classes listadas por método no relatório
+     */
+    public static final int REPORT_TOP_CLASSES = 5;
+
+    private static final float KBYTE = 1024f;
+    private static final ConcurrentMap<Method, MethodPayload> METHODS = new ConcurrentHashMap<Method, MethodPayload>();
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_KEY);
+    private static volatile long breakdownThreshold = DEFAULT_BREAKDOWN_THRESHOLD;
+
+    private PayloadProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Habilita ou desabilita o perfil. Os dados já coletados são mantidos
+     * @param enabled true para perfilar as próximas chamadas
+     */
+    public static void setEnabled(boolean enabled) {
+        PayloadProfiler.enabled = enabled;
+    }
+
+    public static long getBreakdownThreshold() {
+        return breakdownThreshold;
+    }
+
+    /**
+     * Define o tamanho a partir do qual o payload é detalhado por classe. O
+     * detalhamento serializa o grafo mais uma vez, esvaziando o buffer a cada objeto
+     * @param bytes tamanho mínimo em bytes; 0 detalha todas as chamadas
+     */
+    public static void setBreakdownThreshold(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("O limite de detalhamento não pode ser negativo");
+        }
+        breakdownThreshold = bytes;
+    }
+
+    /**
+     * Registra o tamanho dos argumentos de uma chamada
+     * @param method método invocado
+     * @param args argumentos da chamada
+     */
+    static void recordArguments(Method method, Object[] args) {
+        MethodPayload payload = getPayload(method);
+        payload.calls.increment();
+        if (args != null && args.length > 0) {
+            payload.record(payload.arguments, args);
+        }
+    }
+
+    /**
+     * Registra o tamanho do retorno de uma chamada
+     * @param method método invocado
+     * @param result retorno da chamada
+     */
+    static void recordResult(Method method, Object result) {
+        if (method.getReturnType() != void.class) {
+            MethodPayload payload = getPayload(method);
+            payload.record(payload.results, result);
+        }
+    }
+
+    private static MethodPayload getPayload(Method method) {
+        MethodPayload payload = METHODS.get(method);
+        if (payload == null) {
+            MethodPayload created = new MethodPayload(method);
+            payload = METHODS.putIfAbsent(method, created);
+            if (payload == null) {
+                payload = created;
+            }
+        }
+        return payload;
+    }
+
+    /**
+     * @return perfil de cada método chamado, do maior para o menor volume total
+     */
+    public static List<MethodPayload> getMethodPayloads() {
+        List<MethodPayload> payloads = new ArrayList<MethodPayload>(METHODS.values());
+        Collections.sort(payloads, new Comparator<MethodPayload>() {
+            @Override
+            public int compare(MethodPayload o1, MethodPayload o2) {
+                return Long.compare(o2.getTotalBytes(), o1.getTotalBytes());
+            }
+        });
+        return payloads;
+    }
+
+    /**
+     * Descarta os dados coletados
+     */
+    public static void reset() {
+        METHODS.clear();
+    }
+
+    /**
+     * @return relatório textual do perfil, do método de maior volume para o de menor
+     */
+    public static String report() {
+        List<MethodPayload> payloads = getMethodPayloads();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Payload serializado de %d método(s), limite de detalhamento %s%n",
+                payloads.size(), formatSize(breakdownThreshold)));
+        for (MethodPayload payload : payloads) {
+            sb.append(String.format("%n%s: %d chamada(s), total %s%n", payload.getName(), payload.getCalls(),
+                    formatSize(payload.getTotalBytes())));
+            appendHistogram(sb, "argumentos", payload.getArguments());
+            appendHistogram(sb, "retorno", payload.getResults());
+            if (payload.getUnserializableCount() > 0) {
+                sb.append(String.format("    não serializáveis: %d%n", payload.getUnserializableCount()));
+            }
+            for (ClassPayload type : payload.getTopClasses(REPORT_TOP_CLASSES)) {
+                sb.append(String.format("    %-50s %10s %8d instância(s)%n", type.getType().getName(),
+                        formatSize(type.getBytes()), type.getInstances()));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendHistogram(StringBuilder sb, String label, SizeHistogram histogram) {
+        if (histogram.getCount() > 0) {
+            sb.append(String.format("    %-10s p50 %s, p95 %s, máx %s%n", label, formatSize(histogram.getPercentile(50)),
+                    formatSize(histogram.getPercentile(95)), formatSize(histogram.getMax())));
+        }
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes < KBYTE) {
+            return bytes + " b";
+        }
+        if (bytes < KBYTE * KBYTE) {
+            return String.format("%.1f kb", bytes / KBYTE);
+        }
+        return String.format("%.1f mb", bytes / (KBYTE * KBYTE));
+    }
+
+    /**
+     * Perfil de payload de um método do serviço
+     */
+    public static final class MethodPayload {
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder unserializable = new LongAdder();
+        private final SizeHistogram arguments = new SizeHistogram();
+        private final SizeHistogram results = new SizeHistogram();
+        private final ConcurrentMap<Class<?>, ClassPayload> classes = new ConcurrentHashMap<Class<?>, ClassPayload>();
+
+        MethodPayload(Method method) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(method.getDeclaringClass().getSimpleName()).append('.').append(method.getName()).append('(');
+            Class<?>[] types = method.getParameterTypes();
+            for (int i = 0; i < types.length; i++) {
+                sb.append(i > 0 ? ", " : "").append(types[i].getSimpleName());
+            }
+            this.name = sb.append(')').toString();
+        }
+
+        /**
+         * Mede o grafo e, se ultrapassar o limite, distribui os bytes pelas classes
+         */
+        private void record(SizeHistogram histogram, Object graph) {
+            try {
+                long size = PayloadMeter.measure(graph);
+                histogram.record(size);
+                if (size >= breakdownThreshold) {
+                    for (Map.Entry<Class<?>, long[]> entry : PayloadMeter.breakdown(graph).entrySet()) {
+                        getClassPayload(entry.getKey()).add(entry.getValue()[0], entry.getValue()[1]);
+                    }
+                }
+            } catch (IOException e) {
+                unserializable.increment();
+                LoggerFactory.getLogger(PayloadProfiler.class).debug(String.format("Payload de %s não serializável", name), e);
+            }
+        }
+
+        private ClassPayload getClassPayload(Class<?> type) {
+            ClassPayload payload = classes.get(type);
+            if (payload == null) {
+                ClassPayload created = new ClassPayload(type);
+                payload = classes.putIfAbsent(type, created);
+                if (payload == null) {
+                    payload = created;
+                }
+            }
+            return payload;
+        }
+
+        /**
+         * @return nome do método no formato Interface.metodo(TiposDosParametros)
+         */
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /**
+         * @return chamadas cujos argumentos ou retorno não puderam ser serializados
+         */
+        public long getUnserializableCount() {
+            return unserializable.sum();
+        }
+
+        /**
+         * @return distribuição do tamanho dos argumentos, serializados juntos
+         */
+        public SizeHistogram getArguments() {
+            return arguments;
+        }
+
+        /**
+         * @return distribuição do tamanho dos retornos
+         */
+        public SizeHistogram getResults() {
+            return results;
+        }
+
+        /**
+         * @return soma dos tamanhos de argumentos e retornos, em bytes
+         */
+        public long getTotalBytes() {
+            return arguments.getTotal() + results.getTotal();
+        }
+
+        /**
+         * @param max número máximo de classes
+         * @return classes com mais bytes nas chamadas detalhadas, da maior para a menor
+         */
+        public List<ClassPayload> getTopClasses(int max) {
+            List<ClassPayload> types = new ArrayList<ClassPayload>(classes.values());
+            Collections.sort(types, new Comparator<ClassPayload>() {
+                @Override
+                public int compare(ClassPayload o1, ClassPayload o2) {
+                    return Long.compare(o2.getBytes(), o1.getBytes());
+                }
+            });
+            return types.size() > max ? types.subList(0, max) : types;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d chamada(s), %d bytes", name, getCalls(), getTotalBytes());
+        }
+    }
+
+    /**
+     * Bytes atribuídos a uma classe nas chamadas detalhadas de um método
+     */
+    public static final class ClassPayload {
+        private final Class<?> type;
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder instances = new LongAdder();
+
+        ClassPayload(Class<?> type) {
+            this.type = type;
+        }
+
+        private void add(long size, long count) {
+            bytes.add(size);
+            instances.add(count);
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * @return bytes aproximados das instâncias da classe, sem os objetos referenciados
+         */
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        public long getInstances() {
+            return instances.sum();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.stemcell.swing.blocking;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Isola os argumentos por uma ida e volta completa de serialização de cada
+ * argumento. Mais lenta que a DeepCopyArgumentIsolation, serve como modo de
+ * verificação: executa exatamente o writeObject/readObject de cada classe e
+ * registra o tamanho serializado dos parâmetros.
+ */
+public class SerializationArgumentIsolation implements ArgumentIsolation {
+
+    /**
+     * Copia os argumentos do array informado atraves de um processo de serializacao
+     * @param args argumentos que serao serializados
+     * @throws Exception qualquer tipo de excacao que ocorra nesse processo
+     */
+    @Override
+    public void isolate(Object[] args) throws Exception {
+        final float KBYTE = 1024f;
+        int bufferSize = 0;
+        int i = 0;
+        ByteArrayOutputStream serializationBuffer = null;
+        ObjectOutputStream objectOutputStream = null;
+
+        for (i = 0; i < args.length; i++) {
+            serializationBuffer = new ByteArrayOutputStream();
+            objectOutputStream = new ObjectOutputStream(serializationBuffer);
+            objectOutputStream.writeObject(args[i]);
+            objectOutputStream.close();
+            bufferSize += serializationBuffer.size();
+            args[i] = new ObjectInputStream(new ByteArrayInputStream(serializationBuffer.toByteArray())).readObject();
+        }
+        LoggerFactory.getLogger(getClass()).info(String.format("Serialized parameters size: %.3f kb\n", bufferSize / KBYTE));
+    }
+}
@@ -0,0 +1,52 @@
+package com.stemcell.swing.blocking;
+
+import com.stemcell.common.util.LogHistogram;
+
+/**
+ * Histograma de tamanhos em bytes, sem bloqueio, sobre um LogHistogram. O
+ * total e o máximo são exatos; os percentis têm erro relativo de até 25%.
+ */
+public final class SizeHistogram {
+    private final LogHistogram histogram = new LogHistogram();
+
+    /**
+     * Registra um tamanho
+     *
+     * @param bytes tamanho em bytes
+     */
+    public void record(long bytes) {
+        histogram.record(bytes);
+    }
+
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    /**
+     * @return soma dos tamanhos registrados, em bytes
+     */
+    public long getTotal() {
+        return histogram.getSum();
+    }
+
+    /**
+     * @return maior tamanho registrado, em bytes
+     */
+    public long getMax() {
+        return histogram.getMax();
+    }
+
+    /**
+     * Estima um percentil dos tamanhos registrados
+     *
+     * @param percentile percentil, entre 0 e 100
+     * @return limite superior da faixa que contém o percentil, em bytes
+     */
+    public long getPercentile(double percentile) {
+        return histogram.getPercentile(percentile);
+    }
+
+    void reset() {
+        histogram.reset();
+    }
+}
@@ -1,8 +1,8 @@
 package com.stemcell.swing.components;
 
+import com.stemcell.common.util.InvocationCache;
 import java.awt.Component;
 import java.awt.event.ActionEvent;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
 import javax.swing.AbstractAction;
@@ -222,28 +222,39 @@ public class ConfigurableAction extends AbstractAction {
             DialogMessages.error(null, "Ação não configurada");
             return;
         }
+        if (confirm != null && !DialogMessages.confirm(JFrame.getFrames()[0], confirm)) {
+            return;
+        }
+        Object[] obj = new Object[method.getParameterTypes().length];
+        if (this.params != null) {
+            obj = params;
+        } else if (obj.length > 0 && ActionEvent.class.isAssignableFrom(method.getParameterTypes()[0])) {
+            obj[0] = ae;
+        }
         try {
-            if (confirm != null && !DialogMessages.confirm(JFrame.getFrames()[0], confirm)) {
-                return;
-            }
-            Object[] obj = new Object[method.getParameterTypes().length];
-            if (this.params != null) {
-                obj = params;
-            } else if (obj.length > 0 && ActionEvent.class.isAssignableFrom(method.getParameterTypes()[0])) {
-                obj[0] = ae;
-            }
-            method.setAccessible(true);
-            method.invoke(target, obj);
+            invokeMethod(obj);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            // Exceção checada do método da ação
+            throw new UndeclaredThrowableException(ex);
+        }
 
-            if (componentToRepaint != null) {
-                componentToRepaint.repaint();
-            }
-        } catch (IllegalAccessException ex) {
-            throw new RuntimeException(ex);
-        } catch (InvocationTargetException ex) {
-            throw new UndeclaredThrowableException(ex.getCause());
+        if (componentToRepaint != null) {
+            componentToRepaint.repaint();
         }
-        
+    }
+
+    /**
+     * Invoca o método pelo InvocationCache, que o torna acessível e o adapta
+     * uma única vez
+     * @param args argumentos da chamada
+     * @throws Throwable exceção lançada pelo método
+     */
+    private void invokeMethod(Object[] args) throws Throwable {
+        InvocationCache.get(method).invoke(target, args);
     }
 
     @Override
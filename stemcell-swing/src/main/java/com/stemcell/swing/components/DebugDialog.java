@@ -1,18 +1,76 @@
 package com.stemcell.swing.components;
 
+import com.stemcell.swing.blocking.PayloadProfiler;
 import java.awt.BorderLayout;
+import java.awt.Font;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import org.slf4j.LoggerFactory;
 
 public class DebugDialog extends FinalizeOnDisposeDialog {
+    private static final int REPORT_ROWS = 30;
+    private static final int REPORT_COLUMNS = 100;
 
     /** Creates new form DebugDialog
      * @param parent parent
      */
     public DebugDialog(java.awt.Frame parent) {
         super(parent, false);
+        getContentPane().setLayout(new BorderLayout());
         GCLabel gCLabel1 = new GCLabel();
         getContentPane().add(gCLabel1, BorderLayout.CENTER);
-        getContentPane().setLayout(new BorderLayout());
+        getContentPane().add(createPayloadPanel(), BorderLayout.SOUTH);
+        pack();
         setLocationRelativeTo(parent);
     }
 
+    /**
+     * Controles do perfil de payload das chamadas ao serviço
+     * @return painel com os controles
+     */
+    private JPanel createPayloadPanel() {
+        final JCheckBox enabled = new JCheckBox("Perfil de payload", PayloadProfiler.isEnabled());
+        enabled.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                PayloadProfiler.setEnabled(enabled.isSelected());
+            }
+        });
+        JButton report = new JButton("Relatório");
+        report.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                showPayloadReport();
+            }
+        });
+        JButton reset = new JButton("Limpar");
+        reset.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                PayloadProfiler.reset();
+            }
+        });
+        JPanel panel = new JPanel();
+        panel.add(enabled);
+        panel.add(report);
+        panel.add(reset);
+        return panel;
+    }
+
+    /**
+     * Exibe e registra no log o relatório do perfil de payload
+     */
+    private void showPayloadReport() {
+        String text = PayloadProfiler.report();
+        LoggerFactory.getLogger(getClass()).info(text);
+        JTextArea area = new JTextArea(text, REPORT_ROWS, REPORT_COLUMNS);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, area.getFont().getSize()));
+        area.setEditable(false);
+        area.setCaretPosition(0);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "Perfil de payload", JOptionPane.PLAIN_MESSAGE);
+    }
+
 }
@@ -1,8 +1,12 @@
 package com.stemcell.swing.components.dialog;
 
 
+import com.stemcell.swing.assync.AssyncInvoker;
+import com.stemcell.swing.assync.KeyedSerialExecutor;
+import com.stemcell.swing.assync.VirtualThreadExecutorProfile;
 import com.stemcell.swing.components.FinalizeOnDisposeDialog;
 import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import javax.swing.JLabel;
 import javax.swing.JProgressBar;
@@ -25,11 +29,27 @@ public class BlockingDialog extends FinalizeOnDisposeDialog {
     }
 
     public Object blockingInvoke(final Object service, final Method method, final Object[] args) throws InterruptedException, ExecutionException  {
+        return blockingInvoke(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return method.invoke(service, args);
+            }
+        });
+    }
+
+    /**
+     * Executa a chamada fora da thread de eventos, exibindo o diálogo até o seu término
+     * @param call chamada
+     * @return retorno da chamada
+     * @throws InterruptedException InterruptedException
+     * @throws ExecutionException com a exceção lançada pela chamada
+     */
+    public Object blockingInvoke(final Callable<?> call) throws InterruptedException, ExecutionException  {
         SwingWorker sw = new SwingWorker() {
 
             @Override
             protected Object doInBackground() throws Exception {
-                return method.invoke(service, args);
+                return call.call();
             }
 
             @Override
@@ -38,7 +58,15 @@ public class BlockingDialog extends FinalizeOnDisposeDialog {
             }
         };
         
-        sw.execute();
+        // Chamada bloqueante de I/O: usa threads virtuais quando disponíveis, em
+        // vez do pool limitado do SwingWorker. Sem elas o perfil virtual é um
+        // pool com fila por prioridade compartilhado com as chamadas
+        // assíncronas, onde o diálogo modal poderia esperar atrás delas
+        if (VirtualThreadExecutorProfile.isVirtual()) {
+            AssyncInvoker.getKeyedExecutor().getProfileExecutor(KeyedSerialExecutor.VIRTUAL_PROFILE).execute(sw);
+        } else {
+            sw.execute();
+        }
         setVisible(true);
         return sw.get();
     }
@@ -0,0 +1,31 @@
+package com.stemcell.swing.assync;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Acesso às threads virtuais. Versão para Java 21 ou superior, empacotada em
+ * META-INF/versions/21 do JAR multi-release.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true se a JVM oferece threads virtuais
+     */
+    static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Cria o executor do perfil, que inicia uma thread virtual por tarefa
+     *
+     * @param profile perfil de execução
+     * @return executor
+     */
+    static ExecutorService newExecutor(VirtualThreadExecutorProfile profile) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("assync-" + profile.getName() + "-", 1).factory());
+    }
+}